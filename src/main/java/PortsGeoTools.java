@@ -2,8 +2,11 @@ import org.geotools.geometry.jts.GeometryClipper;
 import org.geotools.geometry.jts.JTS;
 import org.geotools.geometry.jts.OffsetCurveBuilder;
 import org.geotools.polylabel.PolyLabeller;
+import org.geotools.polylabelfast.LabelResult;
 import org.geotools.polylabelfast.PolyLabellerFast;
+import org.locationtech.jts.geom.Envelope;
 import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.Point;
 import org.locationtech.jtstest.geomfunction.Metadata;
 
 public class PortsGeoTools {
@@ -35,4 +38,21 @@ public class PortsGeoTools {
     return PolyLabellerFast.getPoint(g, tolerance);
   }
   
+  @Metadata(description="Computes a label point for each polygon element in parallel, using fast algorithms")
+  public static Geometry labelPointsFast(Geometry g, 
+      @Metadata(title="Precision", description="Tolerance distance for point placement") double tolerance) {
+    return PolyLabellerFast.getPoints(g, tolerance);
+  }
+  
+  @Metadata(description="Computes the largest rectangle of a given aspect ratio inside a polygon, for label placement")
+  public static Geometry labelRectangleFast(Geometry g, 
+      @Metadata(title="Aspect ratio", description="Label width divided by label height") double aspectRatio,
+      @Metadata(title="Precision", description="Tolerance for the rectangle height") double tolerance) {
+    LabelResult label = new PolyLabellerFast(g).getRectangleLabel(aspectRatio, 1, tolerance, Integer.MAX_VALUE, Long.MAX_VALUE);
+    double hw = label.getDistance() * aspectRatio / 2;
+    double hh = label.getDistance() / 2;
+    Point p = label.getPoint();
+    return g.getFactory().toGeometry(new Envelope(p.getX() - hw, p.getX() + hw, p.getY() - hh, p.getY() + hh));
+  }
+  
 }
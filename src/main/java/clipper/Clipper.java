@@ -42,12 +42,18 @@ public interface Clipper {
 
     boolean addPaths(Paths ppg, PolyType polyType, boolean closed);
 
+    boolean addPaths(LongPaths ppg, PolyType polyType, boolean closed);
+
     void clear();
 
     boolean execute(ClipType clipType, Paths solution);
 
     boolean execute(ClipType clipType, Paths solution, PolyFillType subjFillType, PolyFillType clipFillType);
 
+    boolean execute(ClipType clipType, LongPaths solution);
+
+    boolean execute(ClipType clipType, LongPaths solution, PolyFillType subjFillType, PolyFillType clipFillType);
+
     boolean execute(ClipType clipType, PolyTree polytree);
 
     boolean execute(ClipType clipType, PolyTree polytree, PolyFillType subjFillType, PolyFillType clipFillType);
@@ -1,8 +1,8 @@
 package clipper;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
-import java.util.logging.Logger;
 
 import clipper.Path.OutRec;
 import clipper.Point.LongPoint;
@@ -15,9 +15,65 @@ public abstract class ClipperBase implements Clipper {
         LocalMinima next;
     }
 
-    protected class Scanbeam {
-        long y;
-        Scanbeam next;
+    /**
+     * A priority queue of scanbeam y values, held in a binary max-heap
+     * backed by a primitive array. Duplicate values may be inserted;
+     * they are discarded when popped.
+     */
+    protected static class Scanbeam {
+        private long[] heap = new long[16];
+        private int size;
+
+        void clear() {
+            size = 0;
+        }
+
+        boolean isEmpty() {
+            return size == 0;
+        }
+
+        void insert( long y ) {
+            if (size == heap.length) {
+                heap = Arrays.copyOf( heap, 2 * heap.length );
+            }
+            int i = size++;
+            while (i > 0) {
+                final int parent = (i - 1) >>> 1;
+                if (heap[parent] >= y) {
+                    break;
+                }
+                heap[i] = heap[parent];
+                i = parent;
+            }
+            heap[i] = y;
+        }
+
+        long pop() {
+            final long top = heap[0];
+            removeTop();
+            while (size > 0 && heap[0] == top) {
+                removeTop();
+            }
+            return top;
+        }
+
+        private void removeTop() {
+            final long y = heap[--size];
+            int i = 0;
+            final int half = size >>> 1;
+            while (i < half) {
+                int child = 2 * i + 1;
+                if (child + 1 < size && heap[child + 1] > heap[child]) {
+                    child++;
+                }
+                if (y >= heap[child]) {
+                    break;
+                }
+                heap[i] = heap[child];
+                i = child;
+            }
+            heap[i] = y;
+        }
     }
 
     protected class Maxima {
@@ -26,30 +82,31 @@ public abstract class ClipperBase implements Clipper {
         Maxima prev;
     }
 
-    private static void initEdge(Edge e, Edge eNext, Edge ePrev, LongPoint pt ) {
-        e.next = eNext;
-        e.prev = ePrev;
-        e.setCurrent( new LongPoint( pt ) );
+    private static void initEdge(Edge e, long x, long y, long z ) {
+        final LongPoint curr = e.getCurrent();
+        curr.setX( x );
+        curr.setY( y );
+        curr.setZ( z );
         e.outIdx = Edge.UNASSIGNED;
     }
 
     private static void initEdge2(Edge e, PolyType polyType ) {
         if (e.getCurrent().getY() >= e.next.getCurrent().getY()) {
-            e.setBot( new LongPoint( e.getCurrent() ) );
-            e.setTop( new LongPoint( e.next.getCurrent() ) );
+            e.setBot( e.getCurrent() );
+            e.setTop( e.next.getCurrent() );
         }
         else {
-            e.setTop( new LongPoint( e.getCurrent() ) );
-            e.setBot( new LongPoint( e.next.getCurrent() ) );
+            e.setTop( e.getCurrent() );
+            e.setBot( e.next.getCurrent() );
         }
         e.updateDeltaX();
         e.polyTyp = polyType;
     }
 
-    private static void rangeTest( LongPoint Pt ) {
+    private static void rangeTest( long x, long y ) {
 
-        if (Pt.getX() > LOW_RANGE || Pt.getY() > LOW_RANGE || -Pt.getX() > LOW_RANGE || -Pt.getY() > LOW_RANGE) {
-            if (Pt.getX() > HI_RANGE || Pt.getY() > HI_RANGE || -Pt.getX() > HI_RANGE || -Pt.getY() > HI_RANGE) {
+        if (x > LOW_RANGE || y > LOW_RANGE || -x > LOW_RANGE || -y > LOW_RANGE) {
+            if (x > HI_RANGE || y > HI_RANGE || -x > HI_RANGE || -y > HI_RANGE) {
                 throw new IllegalStateException( "Coordinate outside allowed range" );
             }
         }
@@ -72,18 +129,30 @@ public abstract class ClipperBase implements Clipper {
 
     protected LocalMinima currentLM;
 
-    protected Scanbeam scanbeam;
+    protected final Scanbeam scanbeam = new Scanbeam();
 
     protected final List<OutRec> polyOuts = new ArrayList<>();
 
+    //pools of reusable structures. Edges and LocalMinima are released by clear(),
+    //OutRecs by disposeAllOutRecs() at the end of each execute ...
+    private final List<Edge> edgePool = new ArrayList<>();
+
+    private int edgesUsed;
+
+    private final List<LocalMinima> minimaPool = new ArrayList<>();
+
+    private int minimaUsed;
+
+    private final List<OutRec> outRecPool = new ArrayList<>();
+
+    private int outRecsUsed;
+
     protected Edge activeEdges;
 
     protected boolean hasOpenPaths;
 
     protected final boolean preserveCollinear;
 
-    private final static Logger LOGGER = Logger.getLogger( Clipper.class.getName() );
-
     protected ClipperBase( boolean preserveCollinear ) //constructor (nb: no external instantiation)
     {
         this.preserveCollinear = preserveCollinear;
@@ -112,25 +181,108 @@ public abstract class ClipperBase implements Clipper {
             return false;
         }
 
-        //create a new edge array ...
-        final List<Edge> edges = new ArrayList<>( highI + 1 );
+        //create a new edge ring ...
+        final int poolMark = edgesUsed;
+        final Edge eStart = createEdges( highI );
+
+        //1. Basic (first) edge initialization ...
+        Edge e = eStart;
         for (int i = 0; i <= highI; i++) {
-            edges.add( new Edge() );
+            final LongPoint pt = pg.get( i );
+            rangeTest( pt.getX(), pt.getY() );
+            initEdge( e, pt.getX(), pt.getY(), pt.getZ() );
+            e = e.next;
+        }
+        if (!addEdges( eStart, polyType, Closed )) {
+            //nothing references a rejected path's edges, so give them back ...
+            edgesUsed = poolMark;
+            return false;
         }
+        return true;
+    }
 
-        boolean IsFlat = true;
+    /**
+     * Adds one path of a {@link LongPaths}, reading its vertices directly
+     * from the packed coordinate array.
+     */
+    public boolean addPath(LongPaths paths, int index, PolyType polyType, boolean Closed ) {
 
-        //1. Basic (first) edge initialization ...
-        edges.get( 1 ).setCurrent( new LongPoint( pg.get( 1 ) ) );
-        rangeTest( pg.get( 0 ) );
-        rangeTest( pg.get( highI ) );
-        initEdge( edges.get( 0 ), edges.get( 1 ), edges.get( highI ), pg.get( 0 ) );
-        initEdge( edges.get( highI ), edges.get( 0 ), edges.get( highI - 1 ), pg.get( highI ) );
-        for (int i = highI - 1; i >= 1; --i) {
-            rangeTest( pg.get( i ) );
-            initEdge( edges.get( i ), edges.get( i + 1 ), edges.get( i - 1 ), pg.get( i ) );
+        if (!Closed && polyType == PolyType.CLIP) {
+            throw new IllegalStateException( "AddPath: Open paths must be subject." );
+        }
+
+        final int start = paths.getStart( index );
+        final long[] xy = paths.getCoordinates();
+        int highI = paths.getPointCount( index ) - 1;
+        if (Closed) {
+            while (highI > 0 && xy[2 * (start + highI)] == xy[2 * start] && xy[2 * (start + highI) + 1] == xy[2 * start + 1]) {
+                --highI;
+            }
+        }
+        while (highI > 0 && xy[2 * (start + highI)] == xy[2 * (start + highI - 1)] && xy[2 * (start + highI) + 1] == xy[2 * (start + highI - 1) + 1]) {
+            --highI;
+        }
+        if (Closed && highI < 2 || !Closed && highI < 1) {
+            return false;
+        }
+
+        final int poolMark = edgesUsed;
+        final Edge eStart = createEdges( highI );
+        Edge e = eStart;
+        for (int i = 0; i <= highI; i++) {
+            final long x = xy[2 * (start + i)];
+            final long y = xy[2 * (start + i) + 1];
+            rangeTest( x, y );
+            initEdge( e, x, y, 0 );
+            e = e.next;
+        }
+        if (!addEdges( eStart, polyType, Closed )) {
+            //nothing references a rejected path's edges, so give them back ...
+            edgesUsed = poolMark;
+            return false;
         }
-        Edge eStart = edges.get( 0 );
+        return true;
+    }
+
+    private Edge createEdges( int highI ) {
+        //edges are taken from the pool as a contiguous run and linked into a ring ...
+        final int first = edgesUsed;
+        for (int i = 0; i <= highI; i++) {
+            final Edge e;
+            if (edgesUsed < edgePool.size()) {
+                e = edgePool.get( edgesUsed );
+                e.reset();
+            }
+            else {
+                e = new Edge();
+                edgePool.add( e );
+            }
+            edgesUsed++;
+        }
+        for (int i = 0; i <= highI; i++) {
+            final Edge e = edgePool.get( first + i );
+            e.next = edgePool.get( first + (i == highI ? 0 : i + 1) );
+            e.prev = edgePool.get( first + (i == 0 ? highI : i - 1) );
+        }
+        return edgePool.get( first );
+    }
+
+    private LocalMinima newLocalMinima() {
+        final LocalMinima result;
+        if (minimaUsed < minimaPool.size()) {
+            result = minimaPool.get( minimaUsed );
+            result.next = null;
+        }
+        else {
+            result = new LocalMinima();
+            minimaPool.add( result );
+        }
+        minimaUsed++;
+        return result;
+    }
+
+    private boolean addEdges(Edge eStart, PolyType polyType, boolean Closed ) {
+        boolean IsFlat = true;
 
         //2. Remove duplicate vertices, and (when closed) collinear edges ...
         Edge e = eStart, eLoopStop = eStart;
@@ -199,7 +351,7 @@ public abstract class ClipperBase implements Clipper {
                 return false;
             }
             e.prev.outIdx = Edge.SKIP;
-            final LocalMinima locMin = new LocalMinima();
+            final LocalMinima locMin = newLocalMinima();
             locMin.next = null;
             locMin.y = e.getBot().getY();
             locMin.leftBound = null;
@@ -238,7 +390,7 @@ public abstract class ClipperBase implements Clipper {
 
             //E and E.Prev now share a local minima (left aligned if horizontal).
             //Compare their slopes to find which starts which bound ...
-            final LocalMinima locMin = new LocalMinima();
+            final LocalMinima locMin = newLocalMinima();
             locMin.next = null;
             locMin.y = e.getBot().getY();
             if (e.deltaX < e.prev.deltaX) {
@@ -301,6 +453,23 @@ public abstract class ClipperBase implements Clipper {
         return result;
     }
 
+    @Override
+    public boolean addPaths(LongPaths paths, PolyType polyType, boolean closed ) {
+        boolean result = false;
+        for (int i = 0; i < paths.size(); i++) {
+            if (addPath( paths, i, polyType, closed )) {
+                result = true;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Removes all paths. The edges and local minima built for them are
+     * returned to this clipper's pools and reused by subsequent calls to addPath,
+     * so a single instance can be cleared and refilled for many clip operations
+     * without reallocating its internal structures.
+     */
     @Override
     public void clear() {
         disposeLocalMinimaList();
@@ -308,12 +477,17 @@ public abstract class ClipperBase implements Clipper {
     }
 
     private void disposeLocalMinimaList() {
-        while (minimaList != null) {
-            final LocalMinima tmpLm = minimaList.next;
-            minimaList = null;
-            minimaList = tmpLm;
-        }
+        for (int i = 0; i < minimaUsed; i++) {
+            final LocalMinima lm = minimaPool.get( i );
+            lm.leftBound = null;
+            lm.rightBound = null;
+            lm.next = null;
+        }
+        minimaUsed = 0;
+        edgesUsed = 0;
+        minimaList = null;
         currentLM = null;
+        activeEdges = null;
     }
 
     private void insertLocalMinima( LocalMinima newLm ) {
@@ -338,7 +512,6 @@ public abstract class ClipperBase implements Clipper {
     }
 
     protected boolean popLocalMinima( long y, LocalMinima[] current ) {
-        LOGGER.entering( ClipperBase.class.getName(), "popLocalMinima" );
         current[0] = currentLM;
         if (currentLM != null && currentLM.y == y) {
             currentLM = currentLM.next;
@@ -387,7 +560,7 @@ public abstract class ClipperBase implements Clipper {
                 else {
                     e = result.prev;
                 }
-                final LocalMinima locMin = new LocalMinima();
+                final LocalMinima locMin = newLocalMinima();
                 locMin.next = null;
                 locMin.y = e.getBot().getY();
                 locMin.leftBound = null;
@@ -486,18 +659,18 @@ public abstract class ClipperBase implements Clipper {
         }
 
         //reset all edges ...
-        scanbeam = null;
+        scanbeam.clear();
         LocalMinima lm = minimaList;
         while (lm != null) {
             insertScanbeam(lm.y);
             Edge e = lm.leftBound;
             if (e != null) {
-                e.setCurrent( new LongPoint( e.getBot() ) );
+                e.setCurrent( e.getBot() );
                 e.outIdx = Edge.UNASSIGNED;
             }
             e = lm.rightBound;
             if (e != null) {
-                e.setCurrent( new LongPoint( e.getBot() ) );
+                e.setCurrent( e.getBot() );
                 e.outIdx = Edge.UNASSIGNED;
             }
             lm = lm.next;
@@ -506,42 +679,15 @@ public abstract class ClipperBase implements Clipper {
     }
 
     protected void insertScanbeam( long y ) {
-        LOGGER.entering( ClipperBase.class.getName(), "insertScanbeam" );
-
-        //single-linked list: sorted descending, ignoring dups.
-        if (scanbeam == null) {
-            scanbeam = new Scanbeam();
-            scanbeam.next = null;
-            scanbeam.y = y;
-        }
-        else if (y > scanbeam.y) {
-            final Scanbeam newSb = new Scanbeam();
-            newSb.y = y;
-            newSb.next = scanbeam;
-            scanbeam = newSb;
-        }
-        else {
-            Scanbeam sb2 = scanbeam;
-            while (sb2.next != null && (y <= sb2.next.y)) {
-                sb2 = sb2.next;
-            }
-            if (y == sb2.y) {
-                return; //ie ignores duplicates
-            }
-            final Scanbeam newSb = new Scanbeam();
-            newSb.y = y;
-            newSb.next = sb2.next;
-            sb2.next = newSb;
-        }
+        scanbeam.insert( y );
     }
 
     protected boolean popScanbeam( long[] y ) {
-        if (scanbeam == null) {
+        if (scanbeam.isEmpty()) {
             y[0] = 0;
             return false;
         }
-        y[0] = scanbeam.y;
-        scanbeam = scanbeam.next;
+        y[0] = scanbeam.pop();
         return true;
     }
 
@@ -550,7 +696,15 @@ public abstract class ClipperBase implements Clipper {
     }
 
     protected OutRec createOutRec() {
-        OutRec result = new OutRec();
+        final OutRec result;
+        if (outRecsUsed < outRecPool.size()) {
+            result = outRecPool.get( outRecsUsed );
+        }
+        else {
+            result = new OutRec();
+            outRecPool.add( result );
+        }
+        outRecsUsed++;
         result.Idx = Edge.UNASSIGNED;
         result.isHole = false;
         result.isOpen = false;
@@ -563,6 +717,21 @@ public abstract class ClipperBase implements Clipper {
         return result;
     }
 
+    /**
+     * Empties the output polygon list, returning all OutRecs to the pool.
+     */
+    protected void disposeAllOutRecs() {
+        for (int i = 0; i < outRecsUsed; i++) {
+            final OutRec outRec = outRecPool.get( i );
+            outRec.setPoints( null );
+            outRec.bottomPt = null;
+            outRec.firstLeft = null;
+            outRec.polyNode = null;
+        }
+        outRecsUsed = 0;
+        polyOuts.clear();
+    }
+
     protected void disposeOutRec( int index ) {
         OutRec outRec = polyOuts.get( index );
         outRec.setPoints( null );
@@ -600,8 +769,6 @@ public abstract class ClipperBase implements Clipper {
     }
 
     protected void swapPositionsInAEL(Edge edge1, Edge edge2 ) {
-        LOGGER.entering( ClipperBase.class.getName(), "swapPositionsInAEL" );
-
         //check that one or other edge hasn't already been removed from AEL ...
         if (edge1.nextInAEL == edge1.prevInAEL || edge2.nextInAEL == edge2.prevInAEL) {
             return;
@@ -662,13 +829,9 @@ public abstract class ClipperBase implements Clipper {
         else if (edge2.prevInAEL == null) {
             activeEdges = edge2;
         }
-
-        LOGGER.exiting( ClipperBase.class.getName(), "swapPositionsInAEL" );
     }
 
     protected void deleteFromAEL( Edge e ) {
-        LOGGER.entering( ClipperBase.class.getName(), "deleteFromAEL" );
-
         Edge aelPrev = e.prevInAEL;
         Edge aelNext = e.nextInAEL;
         if (aelPrev == null && aelNext == null && (e != activeEdges)) {
@@ -685,7 +848,5 @@ public abstract class ClipperBase implements Clipper {
         }
         e.nextInAEL = null;
         e.prevInAEL = null;
-
-        LOGGER.exiting( ClipperBase.class.getName(), "deleteFromAEL" );
     }
 }
\ No newline at end of file
@@ -2,6 +2,8 @@ package clipper;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 
 import clipper.Clipper.*;
@@ -9,6 +11,72 @@ import clipper.Point.DoublePoint;
 import clipper.Point.LongPoint;
 
 public class ClipperOffset {
+    /**
+     * Cosines and sines of the multiples of the step angle used to approximate arcs,
+     * covering a full circle.
+     */
+    private static final class ArcTable {
+        final double[] cos;
+        final double[] sin;
+
+        ArcTable( double steps, double stepCos, double stepSin ) {
+            final int n = (int) steps + 1;
+            cos = new double[n];
+            sin = new double[n];
+            //rotate one step at a time, starting again from exact values every ARC_TABLE_SYNC steps ...
+            double X = 1.0, Y = 0.0;
+            for (int i = 0; i < n; i++) {
+                if (i % ARC_TABLE_SYNC == 0) {
+                    X = Math.cos( i * TWO_PI / steps );
+                    Y = Math.sin( i * TWO_PI / steps );
+                }
+                cos[i] = X;
+                sin[i] = Y;
+                final double X2 = X;
+                X = X * stepCos - stepSin * Y;
+                Y = X2 * stepSin + Y * stepCos;
+            }
+        }
+    }
+
+    private final static int ARC_TABLE_SYNC = 64;
+
+    //arcs with more steps are generated by rotation without a table ...
+    private final static int MAX_ARC_TABLE_STEPS = 1 << 15;
+
+    private final static int MAX_ARC_TABLE_ENTRIES = 1 << 18;
+
+    //arc tables are shared by all instances, keyed by step count and kept in least recently used order.
+    //The step count depends only on the arc tolerance and the absolute delta, so repeated offsets reuse their table ...
+    private static final LinkedHashMap<Long, ArcTable> ARC_TABLES = new LinkedHashMap<>( 16, 0.75f, true );
+
+    private static int arcTableEntries;
+
+    private static ArcTable getArcTable( double steps, double stepCos, double stepSin ) {
+        if (steps > MAX_ARC_TABLE_STEPS) {
+            return null;
+        }
+        final Long key = Double.doubleToLongBits( steps );
+        synchronized (ARC_TABLES) {
+            final ArcTable table = ARC_TABLES.get( key );
+            if (table != null) {
+                return table;
+            }
+        }
+        final ArcTable table = new ArcTable( steps, stepCos, stepSin );
+        synchronized (ARC_TABLES) {
+            if (ARC_TABLES.put( key, table ) == null) {
+                arcTableEntries += table.cos.length;
+            }
+            final Iterator<ArcTable> eldest = ARC_TABLES.values().iterator();
+            while (arcTableEntries > MAX_ARC_TABLE_ENTRIES) {
+                arcTableEntries -= eldest.next().cos.length;
+                eldest.remove();
+            }
+        }
+        return table;
+    }
+
     private static boolean nearZero( double val ) {
         return val > -TOLERANCE && val < TOLERANCE;
     }
@@ -21,6 +89,12 @@ public class ClipperOffset {
     private double delta, inA, sin, cos;
 
     private double miterLim, stepsPerRad;
+
+    //null if the arcs have too many steps to tabulate ...
+    private ArcTable arc;
+
+    //+1 or -1, the direction in which arcs are stepped ...
+    private double arcSign;
     private LongPoint lowest;
 
     private final PolyNode polyNodes;
@@ -29,7 +103,7 @@ public class ClipperOffset {
     private final double miterLimit;
     private final static double TWO_PI = Math.PI * 2;
 
-    private final static double DEFAULT_ARC_TOLERANCE = 0.25;
+    final static double DEFAULT_ARC_TOLERANCE = 0.25;
 
     private final static double TOLERANCE = 1.0E-20;
 
@@ -57,7 +131,7 @@ public class ClipperOffset {
 
         //strip duplicate points from path and also get index to the lowest point ...
         if (endType == EndType.CLOSED_LINE || endType == EndType.CLOSED_POLYGON) {
-            while (highI > 0 && path.get( 0 ) == path.get( highI )) {
+            while (highI > 0 && path.get( 0 ).equals( path.get( highI ) )) {
                 highI--;
             }
         }
@@ -65,7 +139,7 @@ public class ClipperOffset {
         newNode.getPolygon().add( path.get( 0 ) );
         int j = 0, k = 0;
         for (int i = 1; i <= highI; i++) {
-            if (newNode.getPolygon().get( j ) != path.get( i )) {
+            if (!newNode.getPolygon().get( j ).equals( path.get( i ) )) {
                 j++;
                 newNode.getPolygon().add( path.get( i ) );
                 if (path.get( i ).getY() > newNode.getPolygon().get( k ).getY() || path.get( i ).getY() == newNode.getPolygon().get( k ).getY()
@@ -74,6 +148,50 @@ public class ClipperOffset {
                 }
             }
         }
+        addNode( newNode, j, k, endType );
+    }
+
+    /**
+     * Adds one path of a {@link LongPaths}, reading its vertices directly
+     * from the packed coordinate array.
+     */
+    public void addPath(LongPaths paths, int index, JoinType joinType, EndType endType ) {
+        final int start = paths.getStart( index );
+        int highI = paths.getPointCount( index ) - 1;
+        if (highI < 0) {
+            return;
+        }
+        final PolyNode newNode = new PolyNode();
+        newNode.setJoinType( joinType );
+        newNode.setEndType( endType );
+
+        //strip duplicate points from path and also get index to the lowest point ...
+        if (endType == EndType.CLOSED_LINE || endType == EndType.CLOSED_POLYGON) {
+            while (highI > 0 && paths.getX( start ) == paths.getX( start + highI ) && paths.getY( start ) == paths.getY( start + highI )) {
+                highI--;
+            }
+        }
+
+        final Path poly = newNode.getPolygon();
+        long lastX = paths.getX( start ), lastY = paths.getY( start );
+        poly.add( new LongPoint( lastX, lastY ) );
+        int j = 0, k = 0;
+        for (int i = 1; i <= highI; i++) {
+            final long x = paths.getX( start + i ), y = paths.getY( start + i );
+            if (x != lastX || y != lastY) {
+                j++;
+                poly.add( new LongPoint( x, y ) );
+                if (y > poly.get( k ).getY() || y == poly.get( k ).getY() && x < poly.get( k ).getX()) {
+                    k = j;
+                }
+                lastX = x;
+                lastY = y;
+            }
+        }
+        addNode( newNode, j, k, endType );
+    }
+
+    private void addNode( PolyNode newNode, int j, int k, EndType endType ) {
         if (endType == EndType.CLOSED_POLYGON && j < 2) {
             return;
         }
@@ -102,8 +220,14 @@ public class ClipperOffset {
         }
     }
 
+    public void addPaths(LongPaths paths, JoinType joinType, EndType endType ) {
+        for (int i = 0; i < paths.size(); i++) {
+            addPath( paths, i, joinType, endType );
+        }
+    }
+
     public void clear() {
-        polyNodes.getChilds().clear();
+        polyNodes.childs.clear();
         lowest.setX( -1L );
     }
 
@@ -151,6 +275,8 @@ public class ClipperOffset {
         sin = Math.sin( TWO_PI / steps );
         cos = Math.cos( TWO_PI / steps );
         stepsPerRad = steps / TWO_PI;
+        arc = getArcTable( steps, cos, sin );
+        arcSign = delta < 0.0 ? -1 : 1;
         if (delta < 0.0) {
             sin = -sin;
         }
@@ -168,7 +294,7 @@ public class ClipperOffset {
             destPoly = new Path();
 
             if (len == 1) {
-                if (node.getJoinType() == JoinType.ROUND) {
+                if (node.getJoinType() == JoinType.ROUND && arc == null) {
                     double X = 1.0, Y = 0.0;
                     for (int j = 1; j <= steps; j++) {
                         destPoly.add( new LongPoint( Math.round( srcPoly.get( 0 ).getX() + X * delta ), Math.round( srcPoly.get( 0 ).getY() + Y
@@ -178,6 +304,13 @@ public class ClipperOffset {
                         Y = X2 * sin + Y * cos;
                     }
                 }
+                else if (node.getJoinType() == JoinType.ROUND) {
+                    final double[] cos = arc.cos, sin = arc.sin;
+                    for (int j = 0; j < cos.length - 1; j++) {
+                        destPoly.add( new LongPoint( Math.round( srcPoly.get( 0 ).getX() + cos[j] * delta ), Math.round( srcPoly.get( 0 ).getY()
+                                        + arcSign * sin[j] * delta ) ) );
+                    }
+                }
                 else {
                     double X = -1.0, Y = -1.0;
                     for (int j = 0; j < 4; ++j) {
@@ -304,12 +437,28 @@ public class ClipperOffset {
         final double a = Math.atan2( inA, normals.get( k ).getX() * normals.get( j ).getX() + normals.get( k ).getY() * normals.get( j ).getY() );
         final int steps = Math.max( (int) Math.round( stepsPerRad * Math.abs( a ) ), 1 );
 
-        double X = normals.get( k ).getX(), Y = normals.get( k ).getY(), X2;
+        if (arc == null) {
+            double X = normals.get( k ).getX(), Y = normals.get( k ).getY(), X2;
+            for (int i = 0; i < steps; ++i) {
+                destPoly.add( new LongPoint( Math.round( srcPoly.get( j ).getX() + X * delta ), Math.round( srcPoly.get( j ).getY() + Y * delta ) ) );
+                X2 = X;
+                X = X * cos - sin * Y;
+                Y = X2 * sin + Y * cos;
+            }
+            destPoly.add( new LongPoint( Math.round( srcPoly.get( j ).getX() + normals.get( j ).getX() * delta ), Math.round( srcPoly.get( j ).getY()
+                            + normals.get( j ).getY() * delta ) ) );
+            return;
+        }
+
+        //rotate the normal at k through successive table angles ...
+        final double nkx = normals.get( k ).getX(), nky = normals.get( k ).getY();
+        final long sjx = srcPoly.get( j ).getX(), sjy = srcPoly.get( j ).getY();
+        final double[] cos = arc.cos, sin = arc.sin;
         for (int i = 0; i < steps; ++i) {
-            destPoly.add( new LongPoint( Math.round( srcPoly.get( j ).getX() + X * delta ), Math.round( srcPoly.get( j ).getY() + Y * delta ) ) );
-            X2 = X;
-            X = X * cos - sin * Y;
-            Y = X2 * sin + Y * cos;
+            final double s = arcSign * sin[i];
+            final double X = nkx * cos[i] - nky * s;
+            final double Y = nkx * s + nky * cos[i];
+            destPoly.add( new LongPoint( Math.round( sjx + X * delta ), Math.round( sjy + Y * delta ) ) );
         }
         destPoly.add( new LongPoint( Math.round( srcPoly.get( j ).getX() + normals.get( j ).getX() * delta ), Math.round( srcPoly.get( j ).getY()
                         + normals.get( j ).getY() * delta ) ) );
@@ -359,6 +508,38 @@ public class ClipperOffset {
 
     //------------------------------------------------------------------------------
 
+    public void execute(LongPaths solution, double delta ) {
+        solution.clear();
+        fixOrientations();
+        doOffset( delta );
+        //now clean up 'corners' ...
+        final DefaultClipper clpr = new DefaultClipper( Clipper.REVERSE_SOLUTION );
+        clpr.addPaths( destPolys, PolyType.SUBJECT, true );
+        if (delta > 0) {
+            clpr.execute( ClipType.UNION, solution, PolyFillType.POSITIVE, PolyFillType.POSITIVE );
+        }
+        else {
+            final LongRect r = destPolys.getBounds();
+            final Path outer = new Path( 4 );
+
+            outer.add( new LongPoint( r.left - 10, r.bottom + 10, 0 ) );
+            outer.add( new LongPoint( r.right + 10, r.bottom + 10, 0 ) );
+            outer.add( new LongPoint( r.right + 10, r.top - 10, 0 ) );
+            outer.add( new LongPoint( r.left - 10, r.top - 10, 0 ) );
+
+            clpr.addPath( outer, PolyType.SUBJECT, true );
+
+            final LongPaths tmp = new LongPaths();
+            clpr.execute( ClipType.UNION, tmp, PolyFillType.NEGATIVE, PolyFillType.NEGATIVE );
+            //skip the outer rectangle ...
+            for (int i = 1; i < tmp.size(); i++) {
+                solution.addPath( tmp, i );
+            }
+        }
+    }
+
+    //------------------------------------------------------------------------------
+
     public void execute(PolyTree solution, double delta ) {
         solution.Clear();
         fixOrientations();
@@ -385,7 +566,7 @@ public class ClipperOffset {
             //remove the outer PolyNode rectangle ...
             if (solution.getChildCount() == 1 && solution.getChilds().get( 0 ).getChildCount() > 0) {
                 final PolyNode outerNode = solution.getChilds().get( 0 );
-                solution.getChilds().set( 0, outerNode.getChilds().get( 0 ) );
+                solution.childs.set( 0, outerNode.getChilds().get( 0 ) );
                 solution.getChilds().get( 0 ).setParent( solution );
                 for (int i = 1; i < outerNode.getChildCount(); i++) {
                     solution.addChild( outerNode.getChilds().get( i ) );
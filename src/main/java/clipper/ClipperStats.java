@@ -0,0 +1,122 @@
+package clipper;
+
+/**
+ * Counters and phase timings collected by a {@link DefaultClipper}
+ * during a single <code>execute</code> call.
+ * <p>
+ * Collection is opt-in: attach an instance with {@link DefaultClipper#setStats(ClipperStats)}.
+ * The instance is reset at the start of each execute.
+ * When no stats object is attached the clipper does no counting or timing.
+ *
+ */
+public class ClipperStats {
+    long scanbeams;
+
+    long aelInsertions;
+
+    long intersections;
+
+    long joins;
+
+    long outputPoints;
+
+    long sweepNanos;
+
+    long intersectNanos;
+
+    long joinNanos;
+
+    long fixupNanos;
+
+    long resultNanos;
+
+    public void reset() {
+        scanbeams = 0;
+        aelInsertions = 0;
+        intersections = 0;
+        joins = 0;
+        outputPoints = 0;
+        sweepNanos = 0;
+        intersectNanos = 0;
+        joinNanos = 0;
+        fixupNanos = 0;
+        resultNanos = 0;
+    }
+
+    /**
+     * Gets the number of scanbeams processed.
+     */
+    public long getScanbeamCount() {
+        return scanbeams;
+    }
+
+    /**
+     * Gets the number of edges inserted into the active edge list.
+     */
+    public long getAELInsertionCount() {
+        return aelInsertions;
+    }
+
+    /**
+     * Gets the number of edge intersections found within scanbeams.
+     */
+    public long getIntersectionCount() {
+        return intersections;
+    }
+
+    /**
+     * Gets the number of joins recorded between output polygons.
+     */
+    public long getJoinCount() {
+        return joins;
+    }
+
+    /**
+     * Gets the number of output points created.
+     */
+    public long getOutputPointCount() {
+        return outputPoints;
+    }
+
+    /**
+     * Gets the time spent sweeping the scanbeams (including intersection processing), in nanoseconds.
+     */
+    public long getSweepNanos() {
+        return sweepNanos;
+    }
+
+    /**
+     * Gets the time spent finding and processing intersections, in nanoseconds.
+     */
+    public long getIntersectNanos() {
+        return intersectNanos;
+    }
+
+    /**
+     * Gets the time spent joining common edges, in nanoseconds.
+     */
+    public long getJoinNanos() {
+        return joinNanos;
+    }
+
+    /**
+     * Gets the time spent fixing orientations and cleaning up output polygons, in nanoseconds.
+     */
+    public long getFixupNanos() {
+        return fixupNanos;
+    }
+
+    /**
+     * Gets the time spent building the solution, in nanoseconds.
+     */
+    public long getResultNanos() {
+        return resultNanos;
+    }
+
+    @Override
+    public String toString() {
+        return "ClipperStats [scanbeams=" + scanbeams + ", aelInsertions=" + aelInsertions + ", intersections=" + intersections + ", joins=" + joins
+                        + ", outputPoints=" + outputPoints + ", sweepNanos=" + sweepNanos + ", intersectNanos=" + intersectNanos + ", joinNanos=" + joinNanos
+                        + ", fixupNanos=" + fixupNanos + ", resultNanos=" + resultNanos + "]";
+    }
+}
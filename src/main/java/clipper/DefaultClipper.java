@@ -1,30 +1,25 @@
 package clipper;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
-import java.util.logging.Level;
-import java.util.logging.Logger;
 
 import clipper.Path.Join;
 import clipper.Path.OutRec;
 import clipper.Point.LongPoint;
 
 public class DefaultClipper extends ClipperBase {
-    private class IntersectNode {
+    private static class IntersectNode {
         Edge edge1;
         Edge Edge2;
-        private LongPoint pt;
+        private final LongPoint pt = new LongPoint();
 
         LongPoint getPt() {
             return pt;
         }
 
-        void setPt( LongPoint pt ) {
-            this.pt = pt;
-        }
-
     }
 
     private static void getHorzDirection(Edge HorzEdge, Direction[] Dir, long[] Left, long[] Right ) {
@@ -128,7 +123,7 @@ public class DefaultClipper extends ClipperBase {
     }
 
     //------------------------------------------------------------------------------
-    private static boolean joinHorz(Path.OutPt op1, Path.OutPt op1b, Path.OutPt op2, Path.OutPt op2b, LongPoint Pt, boolean DiscardLeft ) {
+    private boolean joinHorz(Path.OutPt op1, Path.OutPt op1b, Path.OutPt op2, Path.OutPt op2b, LongPoint Pt, boolean DiscardLeft ) {
         final Direction Dir1 = op1.getPt().getX() > op1b.getPt().getX() ? Direction.RIGHT_TO_LEFT : Direction.LEFT_TO_RIGHT;
         final Direction Dir2 = op2.getPt().getX() > op2b.getPt().getX() ? Direction.RIGHT_TO_LEFT : Direction.LEFT_TO_RIGHT;
         if (Dir1 == Dir2) {
@@ -147,11 +142,11 @@ public class DefaultClipper extends ClipperBase {
             if (DiscardLeft && op1.getPt().getX() != Pt.getX()) {
                 op1 = op1.next;
             }
-            op1b = op1.duplicate( !DiscardLeft );
+            op1b = duplicateOutPt( op1, !DiscardLeft );
             if (!op1b.getPt().equals( Pt )) {
                 op1 = op1b;
-                op1.setPt( new LongPoint( Pt ) );
-                op1b = op1.duplicate( !DiscardLeft );
+                op1.getPt().set( Pt );
+                op1b = duplicateOutPt( op1, !DiscardLeft );
             }
         }
         else {
@@ -161,11 +156,11 @@ public class DefaultClipper extends ClipperBase {
             if (!DiscardLeft && op1.getPt().getX() != Pt.getX()) {
                 op1 = op1.next;
             }
-            op1b = op1.duplicate( DiscardLeft );
+            op1b = duplicateOutPt( op1, DiscardLeft );
             if (!op1b.getPt().equals( Pt )) {
                 op1 = op1b;
-                op1.setPt( new LongPoint( Pt ) );
-                op1b = op1.duplicate( DiscardLeft );
+                op1.getPt().set( Pt );
+                op1b = duplicateOutPt( op1, DiscardLeft );
             }
         }
 
@@ -176,11 +171,11 @@ public class DefaultClipper extends ClipperBase {
             if (DiscardLeft && op2.getPt().getX() != Pt.getX()) {
                 op2 = op2.next;
             }
-            op2b = op2.duplicate( !DiscardLeft );
+            op2b = duplicateOutPt( op2, !DiscardLeft );
             if (!op2b.getPt().equals( Pt )) {
                 op2 = op2b;
-                op2.setPt( new LongPoint( Pt ) );
-                op2b = op2.duplicate( !DiscardLeft );
+                op2.getPt().set( Pt );
+                op2b = duplicateOutPt( op2, !DiscardLeft );
             }
         }
         else {
@@ -190,11 +185,11 @@ public class DefaultClipper extends ClipperBase {
             if (!DiscardLeft && op2.getPt().getX() != Pt.getX()) {
                 op2 = op2.next;
             }
-            op2b = op2.duplicate( DiscardLeft );
+            op2b = duplicateOutPt( op2, DiscardLeft );
             if (!op2b.getPt().equals( Pt )) {
                 op2 = op2b;
-                op2.setPt( new LongPoint( Pt ) );
-                op2b = op2.duplicate( DiscardLeft );
+                op2.getPt().set( Pt );
+                op2b = duplicateOutPt( op2, DiscardLeft );
             }
         }
 
@@ -213,7 +208,7 @@ public class DefaultClipper extends ClipperBase {
         return true;
     }
 
-    private static boolean joinPoints(Join j, OutRec outRec1, OutRec outRec2 ) {
+    private boolean joinPoints(Join j, OutRec outRec1, OutRec outRec2 ) {
         Path.OutPt op1 = j.outPt1, op1b;
         Path.OutPt op2 = j.outPt2, op2b;
 
@@ -245,8 +240,8 @@ public class DefaultClipper extends ClipperBase {
                 return false;
             }
             if (reverse1) {
-                op1b = op1.duplicate( false );
-                op2b = op2.duplicate( true );
+                op1b = duplicateOutPt( op1, false );
+                op2b = duplicateOutPt( op2, true );
                 op1.prev = op2;
                 op2.next = op1;
                 op1b.next = op2b;
@@ -256,8 +251,8 @@ public class DefaultClipper extends ClipperBase {
                 return true;
             }
             else {
-                op1b = op1.duplicate( true );
-                op2b = op2.duplicate( false );
+                op1b = duplicateOutPt( op1, true );
+                op2b = duplicateOutPt( op2, false );
                 op1.next = op2;
                 op2.prev = op1;
                 op1b.prev = op2b;
@@ -366,8 +361,8 @@ public class DefaultClipper extends ClipperBase {
             }
 
             if (Reverse1) {
-                op1b = op1.duplicate( false );
-                op2b = op2.duplicate( true );
+                op1b = duplicateOutPt( op1, false );
+                op2b = duplicateOutPt( op2, true );
                 op1.prev = op2;
                 op2.next = op1;
                 op1b.next = op2b;
@@ -377,8 +372,8 @@ public class DefaultClipper extends ClipperBase {
                 return true;
             }
             else {
-                op1b = op1.duplicate( true );
-                op2b = op2.duplicate( false );
+                op1b = duplicateOutPt( op1, true );
+                op2b = duplicateOutPt( op2, false );
                 op1.next = op2;
                 op2.prev = op1;
                 op1b.prev = op2b;
@@ -514,8 +509,26 @@ public class DefaultClipper extends ClipperBase {
 
     private final List<IntersectNode> intersectList;
 
+    //IntersectNodes are reused across scanbeams ...
+    private final List<IntersectNode> intersectPool = new ArrayList<>();
+
+    private int intersectPoolUsed;
+
+    private Edge[] sortEdges = new Edge[16];
+
+    private Edge[] sortEdgesTmp = new Edge[16];
+
     private final Comparator<IntersectNode> intersectNodeComparer;
 
+    //OutPts and Joins are reused across executes ...
+    private final List<Path.OutPt> outPtPool = new ArrayList<>();
+
+    private int outPtsUsed;
+
+    private final List<Join> joinPool = new ArrayList<>();
+
+    private int joinsUsed;
+
     private PolyFillType clipFillType;
 
     //------------------------------------------------------------------------------
@@ -534,6 +547,8 @@ public class DefaultClipper extends ClipperBase {
 
     private ZFillCallback zFillFunction;
 
+    private ClipperStats stats;
+
     //------------------------------------------------------------------------------
 
     private final boolean reverseSolution;
@@ -542,8 +557,6 @@ public class DefaultClipper extends ClipperBase {
 
     private final boolean strictlySimple;
 
-    private final static Logger LOGGER = Logger.getLogger( DefaultClipper.class.getName() );
-
     public DefaultClipper() {
         this( 0 );
     }
@@ -551,7 +564,6 @@ public class DefaultClipper extends ClipperBase {
     public DefaultClipper( int InitOptions ) //constructor
     {
         super( (PRESERVE_COLINEAR & InitOptions) != 0 );
-        scanbeam = null;
         maxima = null;
         activeEdges = null;
         sortedEdges = null;
@@ -581,9 +593,23 @@ public class DefaultClipper extends ClipperBase {
 
     }
 
-    private void addEdgeToSEL( Edge edge ) {
-        LOGGER.entering( DefaultClipper.class.getName(), "addEdgeToSEL" );
+    /**
+     * Gets the statistics object attached to this clipper, if any.
+     */
+    public ClipperStats getStats() {
+        return stats;
+    }
 
+    /**
+     * Attaches a statistics object which collects counters and phase timings
+     * for each subsequent execute call.
+     * Passing <code>null</code> (the default) disables collection.
+     */
+    public void setStats( ClipperStats stats ) {
+        this.stats = stats;
+    }
+
+    private void addEdgeToSEL( Edge edge ) {
         //SEL pointers in PEdge are use to build transient lists of horizontal edges.
         //However, since we don't need to worry about processing order, all additions
         //are made to the front of the list ...
@@ -602,21 +628,24 @@ public class DefaultClipper extends ClipperBase {
     }
 
     private void addGhostJoin(Path.OutPt Op, LongPoint OffPt ) {
-        final Join j = new Join();
+        final Join j = newJoin();
         j.outPt1 = Op;
-        j.setOffPt( new LongPoint( OffPt ) );
+        j.outPt2 = null;
+        j.setOffPt( OffPt );
         ghostJoins.add( j );
     }
 
     //------------------------------------------------------------------------------
 
     private void addJoin(Path.OutPt Op1, Path.OutPt Op2, LongPoint OffPt ) {
-        LOGGER.entering( DefaultClipper.class.getName(), "addJoin" );
-        final Join j = new Join();
+        final Join j = newJoin();
         j.outPt1 = Op1;
         j.outPt2 = Op2;
-        j.setOffPt( new LongPoint( OffPt ) );
+        j.setOffPt( OffPt );
         joins.add( j );
+        if (stats != null) {
+            stats.joins++;
+        }
     }
 
     //------------------------------------------------------------------------------
@@ -641,7 +670,6 @@ public class DefaultClipper extends ClipperBase {
     //------------------------------------------------------------------------------
 
     private Path.OutPt addLocalMinPoly(Edge e1, Edge e2, LongPoint pt ) {
-        LOGGER.entering( DefaultClipper.class.getName(), "addLocalMinPoly" );
         Path.OutPt result;
         Edge e, prevE;
         if (e2.isHorizontal() || e1.deltaX > e2.deltaX) {
@@ -684,14 +712,15 @@ public class DefaultClipper extends ClipperBase {
     }
 
     private Path.OutPt addOutPt(Edge e, LongPoint pt ) {
-        LOGGER.entering( DefaultClipper.class.getName(), "addOutPt" );
         if (e.outIdx < 0) {
             final OutRec outRec = createOutRec();
             outRec.isOpen = e.windDelta == 0;
-            final Path.OutPt newOp = new Path.OutPt();
+            final Path.OutPt newOp = newOutPt( pt );
+            if (stats != null) {
+                stats.outputPoints++;
+            }
             outRec.setPoints( newOp );
             newOp.idx = outRec.Idx;
-            newOp.setPt( new LongPoint( pt ) );
             newOp.next = newOp;
             newOp.prev = newOp;
             if (!outRec.isOpen) {
@@ -706,10 +735,6 @@ public class DefaultClipper extends ClipperBase {
             //OutRec.Pts is the 'Left-most' point & OutRec.Pts.Prev is the 'Right-most'
             final Path.OutPt op = outRec.getPoints();
             final boolean ToFront = e.side == Edge.Side.LEFT;
-            if (LOGGER.isLoggable( Level.FINEST )) {
-                LOGGER.finest( "op=" + Path.OutPt.getPointCount( op ) );
-                LOGGER.finest( ToFront + " " + pt + " " + op.getPt() );
-            }
             if (ToFront && pt.equals( op.getPt() )) {
                 return op;
             }
@@ -717,9 +742,11 @@ public class DefaultClipper extends ClipperBase {
                 return op.prev;
             }
 
-            final Path.OutPt newOp = new Path.OutPt();
+            final Path.OutPt newOp = newOutPt( pt );
+            if (stats != null) {
+                stats.outputPoints++;
+            }
             newOp.idx = outRec.Idx;
-            newOp.setPt( new LongPoint( pt ) );
             newOp.next = op;
             newOp.prev = op.prev;
             newOp.prev.next = newOp;
@@ -731,6 +758,70 @@ public class DefaultClipper extends ClipperBase {
         }
     }
 
+    private Path.OutPt newOutPt( LongPoint pt ) {
+        final Path.OutPt result;
+        if (outPtsUsed < outPtPool.size()) {
+            result = outPtPool.get( outPtsUsed );
+            result.getPt().set( pt );
+        }
+        else {
+            result = new Path.OutPt();
+            result.setPt( new LongPoint( pt ) );
+            outPtPool.add( result );
+        }
+        outPtsUsed++;
+        return result;
+    }
+
+    private Path.OutPt duplicateOutPt(Path.OutPt op, boolean InsertAfter ) {
+        final Path.OutPt result = newOutPt( op.getPt() );
+        result.idx = op.idx;
+        if (InsertAfter) {
+            result.next = op.next;
+            result.prev = op;
+            op.next.prev = result;
+            op.next = result;
+        }
+        else {
+            result.prev = op.prev;
+            result.next = op;
+            op.prev.next = result;
+            op.prev = result;
+        }
+        return result;
+    }
+
+    private Join newJoin() {
+        final Join result;
+        if (joinsUsed < joinPool.size()) {
+            result = joinPool.get( joinsUsed );
+        }
+        else {
+            result = new Join();
+            joinPool.add( result );
+        }
+        joinsUsed++;
+        return result;
+    }
+
+    private void disposeOutput() {
+        //output points and joins are only referenced from OutRecs and the join
+        //lists, so once those are emptied they can all go back to the pools ...
+        disposeAllOutRecs();
+        for (int i = 0; i < outPtsUsed; i++) {
+            final Path.OutPt op = outPtPool.get( i );
+            op.next = null;
+            op.prev = null;
+        }
+        outPtsUsed = 0;
+        for (int i = 0; i < joinsUsed; i++) {
+            final Join j = joinPool.get( i );
+            j.outPt1 = null;
+            j.outPt2 = null;
+        }
+        joinsUsed = 0;
+    }
+
     private Path.OutPt getLastOutPt(Edge e) {
         OutRec outRec = polyOuts.get( e.outIdx );
         if (e.side == Edge.Side.LEFT)
@@ -740,12 +831,8 @@ public class DefaultClipper extends ClipperBase {
     }
 
     private void appendPolygon(Edge e1, Edge e2 ) {
-        LOGGER.entering( DefaultClipper.class.getName(), "appendPolygon" );
-
         final OutRec outRec1 = polyOuts.get( e1.outIdx );
         final OutRec outRec2 = polyOuts.get( e2.outIdx );
-        LOGGER.finest( "" + e1.outIdx );
-        LOGGER.finest( "" + e2.outIdx );
 
         OutRec holeStateRec;
         if (isOutRec1RightOfOutRec2( outRec1, outRec2 )) {
@@ -765,11 +852,6 @@ public class DefaultClipper extends ClipperBase {
         final Path.OutPt p2_lft = outRec2.getPoints();
         final Path.OutPt p2_rt = p2_lft.prev;
 
-        LOGGER.finest( "p1_lft.getPointCount() = " + Path.OutPt.getPointCount( p1_lft ) );
-        LOGGER.finest( "p1_rt.getPointCount() = " + Path.OutPt.getPointCount( p1_rt ) );
-        LOGGER.finest( "p2_lft.getPointCount() = " + Path.OutPt.getPointCount( p2_lft ) );
-        LOGGER.finest( "p2_rt.getPointCount() = " + Path.OutPt.getPointCount( p2_rt ) );
-
         //join e2 poly onto e1 poly and delete pointers to e2 ...
         if (e1.side == Edge.Side.LEFT) {
             if (e2.side == Edge.Side.LEFT) {
@@ -845,49 +927,88 @@ public class DefaultClipper extends ClipperBase {
         }
 
         //prepare for sorting ...
+        int cnt = 0;
         Edge e = activeEdges;
-        sortedEdges = e;
         while (e != null) {
-            e.prevInSEL = e.prevInAEL;
-            e.nextInSEL = e.nextInAEL;
             e.getCurrent().setX( Edge.topX( e, topY ) );
+            if (cnt == sortEdges.length) {
+                sortEdges = Arrays.copyOf( sortEdges, 2 * cnt );
+                sortEdgesTmp = new Edge[2 * cnt];
+            }
+            sortEdges[cnt++] = e;
             e = e.nextInAEL;
         }
 
-        //bubblesort ...
-        boolean isModified = true;
-        while (isModified && sortedEdges != null) {
-            isModified = false;
-            e = sortedEdges;
-            while (e.nextInSEL != null) {
-                final Edge eNext = e.nextInSEL;
-                final LongPoint[] pt = new LongPoint[1];
-                if (e.getCurrent().getX() > eNext.getCurrent().getX()) {
-                    intersectPoint( e, eNext, pt );
-                    if (pt[0].getY() < topY) {
-                        pt[0] = new LongPoint( Edge.topX( e, topY ), topY );
-                    }
-                    final IntersectNode newNode = new IntersectNode();
-                    newNode.edge1 = e;
-                    newNode.Edge2 = eNext;
-                    newNode.setPt( new LongPoint( pt[0] ) ); // TODO is new instance necessary?
-                    intersectList.add( newNode );
+        //merge sort on top X. Each pair of edges whose order is inverted
+        //is an intersection within the scanbeam ...
+        mergeSortEdges( 0, cnt, topY );
+        Arrays.fill( sortEdges, 0, cnt, null );
+        Arrays.fill( sortEdgesTmp, 0, cnt, null );
+    }
 
-                    swapPositionsInSEL( e, eNext );
-                    isModified = true;
-                }
-                else {
-                    e = eNext;
+    private void mergeSortEdges( int lo, int hi, long topY ) {
+        if (hi - lo < 2) {
+            return;
+        }
+        final int mid = (lo + hi) >>> 1;
+        mergeSortEdges( lo, mid, topY );
+        mergeSortEdges( mid, hi, topY );
+        final Edge[] a = sortEdges;
+        if (a[mid - 1].getCurrent().getX() <= a[mid].getCurrent().getX()) {
+            return;
+        }
+        final Edge[] tmp = sortEdgesTmp;
+        System.arraycopy( a, lo, tmp, lo, hi - lo );
+        int i = lo, j = mid, k = lo;
+        while (i < mid && j < hi) {
+            if (tmp[j].getCurrent().getX() < tmp[i].getCurrent().getX()) {
+                //tmp[j] crosses every edge remaining in the left half ...
+                for (int m = i; m < mid; m++) {
+                    addIntersectNode( tmp[m], tmp[j], topY );
                 }
-            }
-            if (e.prevInSEL != null) {
-                e.prevInSEL.nextInSEL = null;
+                a[k++] = tmp[j++];
             }
             else {
-                break;
+                a[k++] = tmp[i++];
             }
         }
-        sortedEdges = null;
+        while (i < mid) {
+            a[k++] = tmp[i++];
+        }
+        while (j < hi) {
+            a[k++] = tmp[j++];
+        }
+    }
+
+    private void addIntersectNode( Edge e1, Edge e2, long topY ) {
+        final IntersectNode node;
+        if (intersectPoolUsed < intersectPool.size()) {
+            node = intersectPool.get( intersectPoolUsed );
+        }
+        else {
+            node = new IntersectNode();
+            intersectPool.add( node );
+        }
+        intersectPoolUsed++;
+        node.edge1 = e1;
+        node.Edge2 = e2;
+        final LongPoint pt = node.getPt();
+        intersectPoint( e1, e2, pt );
+        if (pt.getY() < topY) {
+            pt.setX( Edge.topX( e1, topY ) );
+            pt.setY( topY );
+        }
+        intersectList.add( node );
+    }
+
+    private void clearIntersectList() {
+        for (int i = 0; i < intersectPoolUsed; i++) {
+            final IntersectNode node = intersectPool.get( i );
+            node.edge1 = null;
+            node.Edge2 = null;
+        }
+        intersectPoolUsed = 0;
+        intersectList.clear();
     }
 
     //------------------------------------------------------------------------------
@@ -901,7 +1022,6 @@ public class DefaultClipper extends ClipperBase {
             }
             Path.OutPt p = outRec.getPoints().prev;
             final int cnt = Path.OutPt.getPointCount( p );
-            LOGGER.finest( "cnt = " + cnt );
             if (cnt < 2) {
                 continue;
             }
@@ -914,6 +1034,27 @@ public class DefaultClipper extends ClipperBase {
         }
     }
 
+    private void buildResult( LongPaths polyg ) {
+        polyg.clear();
+        for (int i = 0; i < polyOuts.size(); i++) {
+            final OutRec outRec = polyOuts.get( i );
+            if (outRec.getPoints() == null) {
+                continue;
+            }
+            Path.OutPt p = outRec.getPoints().prev;
+            final int cnt = Path.OutPt.getPointCount( p );
+            if (cnt < 2) {
+                continue;
+            }
+            polyg.startPath();
+            polyg.ensurePointCapacity( polyg.getPointCount() + cnt );
+            for (int j = 0; j < cnt; j++) {
+                polyg.add( p.getPt().getX(), p.getPt().getY() );
+                p = p.prev;
+            }
+        }
+    }
+
     private void buildResult2( PolyTree polytree ) {
         polytree.Clear();
 
@@ -930,7 +1071,7 @@ public class DefaultClipper extends ClipperBase {
             outRec.polyNode = pn;
             Path.OutPt op = outRec.getPoints().prev;
             for (int j = 0; j < cnt; j++) {
-                pn.getPolygon().add( op.getPt() );
+                pn.getPolygon().add( new LongPoint( op.getPt() ) );
                 op = op.prev;
             }
         }
@@ -965,8 +1106,6 @@ public class DefaultClipper extends ClipperBase {
     }
 
     private boolean deleteFromSEL( Edge[] e ) {
-        LOGGER.entering( DefaultClipper.class.getName(), "deleteFromSEL" );
-
         //Pop edge from front of SEL (ie SEL is a FILO list)
         e[0] = sortedEdges;
         if (e[0] == null) {
@@ -1010,7 +1149,7 @@ public class DefaultClipper extends ClipperBase {
         while (eNext != null && eNext != eMaxPair) {
             final LongPoint tmp = new LongPoint( e.getTop() );
             intersectEdges( e, eNext, tmp );
-            e.setTop( new LongPoint( tmp ) );
+            e.setTop( tmp );
             swapPositionsInAEL( e, eNext );
             eNext = e.nextInAEL;
         }
@@ -1145,18 +1284,59 @@ public class DefaultClipper extends ClipperBase {
                 succeeded = executeInternal();
                 //build the return polygons ...
                 if (succeeded) {
+                    final long t0 = stats != null ? System.nanoTime() : 0;
                     buildResult( solution );
+                    if (stats != null) {
+                        stats.resultNanos = System.nanoTime() - t0;
+                    }
                 }
                 return succeeded;
             }
             finally {
-                polyOuts.clear();
-
+                disposeOutput();
             }
         }
 
     }
 
+    @Override
+    public boolean execute(ClipType clipType, LongPaths solution ) {
+        return execute( clipType, solution, PolyFillType.EVEN_ODD, PolyFillType.EVEN_ODD );
+    }
+
+    @Override
+    public boolean execute(ClipType clipType, LongPaths solution, PolyFillType subjFillType, PolyFillType clipFillType ) {
+
+        synchronized (this) {
+
+            if (hasOpenPaths) {
+                throw new IllegalStateException( "Error: PolyTree struct is needed for open path clipping." );
+            }
+
+            solution.clear();
+            this.subjFillType = subjFillType;
+            this.clipFillType = clipFillType;
+            this.clipType = clipType;
+            usingPolyTree = false;
+            boolean succeeded;
+            try {
+                succeeded = executeInternal();
+                //build the return polygons ...
+                if (succeeded) {
+                    final long t0 = stats != null ? System.nanoTime() : 0;
+                    buildResult( solution );
+                    if (stats != null) {
+                        stats.resultNanos = System.nanoTime() - t0;
+                    }
+                }
+                return succeeded;
+            }
+            finally {
+                disposeOutput();
+            }
+        }
+    }
+
     @Override
     public boolean execute(ClipType clipType, PolyTree polytree, PolyFillType subjFillType, PolyFillType clipFillType ) {
         synchronized (this) {
@@ -1169,11 +1349,15 @@ public class DefaultClipper extends ClipperBase {
                 succeeded = executeInternal();
                 //build the return polygons ...
                 if (succeeded) {
+                    final long t0 = stats != null ? System.nanoTime() : 0;
                     buildResult2( polytree );
+                    if (stats != null) {
+                        stats.resultNanos = System.nanoTime() - t0;
+                    }
                 }
             }
             finally {
-                polyOuts.clear();
+                disposeOutput();
             }
             return succeeded;
         }
@@ -1182,7 +1366,13 @@ public class DefaultClipper extends ClipperBase {
     //------------------------------------------------------------------------------
 
     private boolean executeInternal() {
+        final ClipperStats stats = this.stats;
         try {
+            long t0 = 0;
+            if (stats != null) {
+                stats.reset();
+                t0 = System.nanoTime();
+            }
             reset();
             sortedEdges = null;
             maxima = null;
@@ -1193,13 +1383,27 @@ public class DefaultClipper extends ClipperBase {
             while ( popScanbeam( topY ) || localMinimaPending()) {
                 processHorizontals();
                 ghostJoins.clear();
-                if (!processIntersections( topY[0] )) {
+                if (stats != null) {
+                    stats.scanbeams++;
+                    final long ti = System.nanoTime();
+                    final boolean ok = processIntersections( topY[0] );
+                    stats.intersectNanos += System.nanoTime() - ti;
+                    if (!ok) {
+                        return false;
+                    }
+                }
+                else if (!processIntersections( topY[0] )) {
                     return false;
                 }
                 processEdgesAtTopOfScanbeam( topY[0] );
                 botY[0] = topY[0];
                 insertLocalMinimaIntoAEL( botY[0] );
             }
+            if (stats != null) {
+                final long t1 = System.nanoTime();
+                stats.sweepNanos = t1 - t0;
+                t0 = t1;
+            }
 
             //fix orientations ...
             for (OutRec outRec : polyOuts) {
@@ -1211,7 +1415,17 @@ public class DefaultClipper extends ClipperBase {
                 }
             }
 
+            if (stats != null) {
+                final long t1 = System.nanoTime();
+                stats.fixupNanos = t1 - t0;
+                t0 = t1;
+            }
             joinCommonEdges();
+            if (stats != null) {
+                final long t1 = System.nanoTime();
+                stats.joinNanos = t1 - t0;
+                t0 = t1;
+            }
 
             for (OutRec outRec : polyOuts) {
                 if (outRec.getPoints() == null) {
@@ -1228,6 +1442,9 @@ public class DefaultClipper extends ClipperBase {
             if (strictlySimple) {
                 doSimplePolygons();
             }
+            if (stats != null) {
+                stats.fixupNanos += System.nanoTime() - t0;
+            }
             return true;
         }
         //catch { return false; }
@@ -1383,23 +1600,21 @@ public class DefaultClipper extends ClipperBase {
     }
 
     private void insertEdgeIntoAEL(Edge edge, Edge startEdge ) {
-        LOGGER.entering( DefaultClipper.class.getName(), "insertEdgeIntoAEL" );
-
+        if (stats != null) {
+            stats.aelInsertions++;
+        }
         if (activeEdges == null) {
             edge.prevInAEL = null;
             edge.nextInAEL = null;
-            LOGGER.finest( "Edge " + edge.outIdx + " -> " + null );
             activeEdges = edge;
         }
         else if (startEdge == null && Edge.doesE2InsertBeforeE1( activeEdges, edge )) {
             edge.prevInAEL = null;
             edge.nextInAEL = activeEdges;
-            LOGGER.finest( "Edge " + edge.outIdx + " -> " + edge.nextInAEL.outIdx );
             activeEdges.prevInAEL = edge;
             activeEdges = edge;
         }
         else {
-            LOGGER.finest( "activeEdges unchanged" );
             if (startEdge == null) {
                 startEdge = activeEdges;
             }
@@ -1418,8 +1633,6 @@ public class DefaultClipper extends ClipperBase {
     //------------------------------------------------------------------------------
 
     private void insertLocalMinimaIntoAEL( long botY ) {
-        LOGGER.entering( DefaultClipper.class.getName(), "insertLocalMinimaIntoAEL" );
-
         LocalMinima[] lm = new LocalMinima[1];
         while ( popLocalMinima( botY, lm )) {
             final Edge lb = lm[0].leftBound;
@@ -1513,8 +1726,6 @@ public class DefaultClipper extends ClipperBase {
     //------------------------------------------------------------------------------
 
     private void intersectEdges(Edge e1, Edge e2, LongPoint pt ) {
-        LOGGER.entering( DefaultClipper.class.getName(), "insersectEdges" );
-
         //e1 will be to the left of e2 BELOW the intersection. Therefore e1 is before
         //e2 in AEL except when e1 is being inserted at the intersection point ...
 
@@ -1728,8 +1939,8 @@ public class DefaultClipper extends ClipperBase {
         }
     }
 
-    private void intersectPoint(Edge edge1, Edge edge2, LongPoint[] ipV ) {
-        final LongPoint ip = ipV[0] = new LongPoint();
+    private void intersectPoint(Edge edge1, Edge edge2, LongPoint ip ) {
+        ip.setZ( 0 );
 
         double b1, b2;
         //nb: with very large coordinate values, it's possible for SlopesEqual() to
@@ -1908,8 +2119,6 @@ public class DefaultClipper extends ClipperBase {
     }
 
     private void processEdgesAtTopOfScanbeam( long topY ) {
-        LOGGER.entering( DefaultClipper.class.getName(), "processEdgesAtTopOfScanbeam" );
-
         Edge e = activeEdges;
         while (e != null) {
             //1. process maxima, treating them as if they're 'bent' horizontal edges,
@@ -2011,11 +2220,9 @@ public class DefaultClipper extends ClipperBase {
             }
             e = e.nextInAEL;
         }
-        LOGGER.exiting( DefaultClipper.class.getName(), "processEdgesAtTopOfScanbeam" );
     }
 
     private void processHorizontal( Edge horzEdge ) {
-        LOGGER.entering( DefaultClipper.class.getName(), "isHorizontal" );
         final Direction[] dir = new Direction[1];
         final long[] horzLeft = new long[1], horzRight = new long[1];
         boolean isOpen = horzEdge.windDelta == 0;
@@ -2195,13 +2402,14 @@ public class DefaultClipper extends ClipperBase {
     //------------------------------------------------------------------------------
 
     private boolean processIntersections( long topY ) {
-        LOGGER.entering( DefaultClipper.class.getName(), "processIntersections" );
-
         if (activeEdges == null) {
             return true;
         }
         try {
             buildIntersectList( topY );
+            if (stats != null) {
+                stats.intersections += intersectList.size();
+            }
             if (intersectList.size() == 0) {
                 return true;
             }
@@ -2214,7 +2422,7 @@ public class DefaultClipper extends ClipperBase {
         }
         catch (final Exception e) {
             sortedEdges = null;
-            intersectList.clear();
+            clearIntersectList();
             throw new IllegalStateException( "ProcessIntersections error", e );
         }
         sortedEdges = null;
@@ -2229,7 +2437,7 @@ public class DefaultClipper extends ClipperBase {
                 swapPositionsInAEL( iNode.edge1, iNode.Edge2 );
             }
         }
-        intersectList.clear();
+        clearIntersectList();
     }
 
     //------------------------------------------------------------------------------
@@ -2398,7 +2606,7 @@ public class DefaultClipper extends ClipperBase {
         e.nextInLML.windCnt = e.windCnt;
         e.nextInLML.windCnt2 = e.windCnt2;
         eV[0] = e = e.nextInLML;
-        e.setCurrent( new LongPoint( e.getBot() ) );
+        e.setCurrent( e.getBot() );
         e.prevInAEL = AelPrev;
         e.nextInAEL = AelNext;
         if (!e.isHorizontal()) {
@@ -2416,8 +2624,6 @@ public class DefaultClipper extends ClipperBase {
     }
 
     private void updateWindingCount( Edge edge ) {
-        LOGGER.entering( DefaultClipper.class.getName(), "updateWindingCount" );
-
         Edge e = edge.prevInAEL;
         //find the edge of the same polytype that immediately preceeds 'edge' in AEL
         while (e != null && (e.polyTyp != edge.polyTyp || e.windDelta == 0)) {
@@ -1,7 +1,5 @@
 package clipper;
 
-import java.util.logging.Logger;
-
 import clipper.Clipper.ClipType;
 import clipper.Clipper.Direction;
 import clipper.Clipper.PolyFillType;
@@ -83,8 +81,6 @@ class Edge {
 
     protected final static double HORIZONTAL = -3.4E+38;
 
-    private final static Logger LOGGER = Logger.getLogger( Edge.class.getName() );
-
     public Edge() {
         delta = new LongPoint();
         top = new LongPoint();
@@ -92,6 +88,26 @@ class Edge {
         current = new LongPoint();
     }
 
+    /**
+     * Returns a pooled edge to its freshly constructed state.
+     */
+    void reset() {
+        deltaX = 0;
+        polyTyp = null;
+        side = null;
+        windDelta = 0;
+        windCnt = 0;
+        windCnt2 = 0;
+        outIdx = 0;
+        next = null;
+        prev = null;
+        nextInLML = null;
+        nextInAEL = null;
+        prevInAEL = null;
+        nextInSEL = null;
+        prevInSEL = null;
+    }
+
     public Edge findNextLocMin() {
         Edge e = this;
         Edge e2;
@@ -161,8 +177,6 @@ class Edge {
     }
 
     public boolean isContributing(PolyFillType clipFillType, PolyFillType subjFillType, ClipType clipType ) {
-        LOGGER.entering( Edge.class.getName(), "isContributing" );
-
         PolyFillType pft, pft2;
         if (polyTyp == PolyType.SUBJECT) {
             pft = subjFillType;
@@ -0,0 +1,173 @@
+package clipper;
+
+import java.util.Arrays;
+
+import clipper.Point.LongPoint;
+
+/**
+ * A compact alternative to {@link Paths} which stores the vertices of all paths
+ * in a single interleaved <code>long[]</code> (x0, y0, x1, y1, ...),
+ * with the start of each path recorded in a per-path offset array.
+ * <p>
+ * Avoids allocating one {@link LongPoint} per vertex and one list per path
+ * when marshalling large inputs into, and results out of, the clipper.
+ * Z values are not stored.
+ *
+ */
+public class LongPaths {
+    private long[] coords;
+
+    private int[] offsets;
+
+    private int pathCount;
+
+    private int pointCount;
+
+    public LongPaths() {
+        this( 8, 64 );
+    }
+
+    public LongPaths( int pathCapacity, int pointCapacity ) {
+        offsets = new int[Math.max( pathCapacity, 1 )];
+        coords = new long[2 * Math.max( pointCapacity, 1 )];
+    }
+
+    public static LongPaths fromPaths( Paths paths ) {
+        int n = 0;
+        for (final Path path : paths) {
+            n += path.size();
+        }
+        final LongPaths result = new LongPaths( paths.size(), n );
+        for (final Path path : paths) {
+            result.addPath( path );
+        }
+        return result;
+    }
+
+    /**
+     * Starts a new (empty) path. Subsequent calls to {@link #add(long, long)}
+     * append vertices to it.
+     */
+    public void startPath() {
+        if (pathCount == offsets.length) {
+            offsets = Arrays.copyOf( offsets, 2 * offsets.length );
+        }
+        offsets[pathCount++] = pointCount;
+    }
+
+    /**
+     * Appends a vertex to the current path.
+     */
+    public void add( long x, long y ) {
+        if (pathCount == 0) {
+            throw new IllegalStateException( "LongPaths: startPath must be called before add" );
+        }
+        ensurePointCapacity( pointCount + 1 );
+        coords[2 * pointCount] = x;
+        coords[2 * pointCount + 1] = y;
+        pointCount++;
+    }
+
+    public void addPath( Path path ) {
+        startPath();
+        ensurePointCapacity( pointCount + path.size() );
+        for (final LongPoint pt : path) {
+            coords[2 * pointCount] = pt.getX();
+            coords[2 * pointCount + 1] = pt.getY();
+            pointCount++;
+        }
+    }
+
+    /**
+     * Appends a copy of a path of another {@link LongPaths}.
+     */
+    public void addPath( LongPaths src, int index ) {
+        final int start = src.getStart( index );
+        final int n = src.getPointCount( index );
+        startPath();
+        ensurePointCapacity( pointCount + n );
+        System.arraycopy( src.coords, 2 * start, coords, 2 * pointCount, 2 * n );
+        pointCount += n;
+    }
+
+    void ensurePointCapacity( int n ) {
+        if (2 * n > coords.length) {
+            coords = Arrays.copyOf( coords, Math.max( 2 * n, 2 * coords.length ) );
+        }
+    }
+
+    public void clear() {
+        pathCount = 0;
+        pointCount = 0;
+    }
+
+    /**
+     * Gets the number of paths.
+     */
+    public int size() {
+        return pathCount;
+    }
+
+    public boolean isEmpty() {
+        return pathCount == 0;
+    }
+
+    /**
+     * Gets the total number of vertices in all paths.
+     */
+    public int getPointCount() {
+        return pointCount;
+    }
+
+    /**
+     * Gets the index of the first vertex of a path.
+     */
+    public int getStart( int path ) {
+        return offsets[path];
+    }
+
+    /**
+     * Gets the index one past the last vertex of a path.
+     */
+    public int getEnd( int path ) {
+        return path + 1 < pathCount ? offsets[path + 1] : pointCount;
+    }
+
+    public int getPointCount( int path ) {
+        return getEnd( path ) - offsets[path];
+    }
+
+    public long getX( int pt ) {
+        return coords[2 * pt];
+    }
+
+    public long getY( int pt ) {
+        return coords[2 * pt + 1];
+    }
+
+    /**
+     * Gets the backing coordinate array.
+     * Only the first <code>2 * getPointCount()</code> entries are valid.
+     */
+    public long[] getCoordinates() {
+        return coords;
+    }
+
+    public Path getPath( int path ) {
+        final int start = getStart( path );
+        final int end = getEnd( path );
+        final Path result = new Path( end - start );
+        for (int i = start; i < end; i++) {
+            result.add( new LongPoint( coords[2 * i], coords[2 * i + 1] ) );
+        }
+        return result;
+    }
+
+    public Paths toPaths() {
+        final Paths result = new Paths( pathCount );
+        for (int i = 0; i < pathCount; i++) {
+            result.add( getPath( i ) );
+        }
+        return result;
+    }
+}
@@ -15,14 +15,14 @@ public class Path extends ArrayList<LongPoint> {
     static class Join {
         Path.OutPt outPt1;
         Path.OutPt outPt2;
-        private LongPoint offPt;
+        private final LongPoint offPt = new LongPoint();
 
         public LongPoint getOffPt() {
             return offPt;
         }
 
         public void setOffPt( LongPoint offPt ) {
-            this.offPt = offPt;
+            this.offPt.set( offPt );
         }
 
     }
@@ -1,9 +1,13 @@
 package clipper;
 
-import java.util.Comparator;
+public abstract class Point {
+    public static class DoublePoint extends Point {
+        protected double x;
+
+        protected double y;
+
+        protected double z;
 
-public abstract class Point<T extends Number & Comparable<T>> {
-    public static class DoublePoint extends Point<Double> {
         public DoublePoint() {
             this( 0, 0 );
         }
@@ -13,11 +17,29 @@ public abstract class Point<T extends Number & Comparable<T>> {
         }
 
         public DoublePoint( double x, double y, double z ) {
-            super( x, y, z );
+            this.x = x;
+            this.y = y;
+            this.z = z;
         }
 
         public DoublePoint( DoublePoint other ) {
-            super( other );
+            this( other.x, other.y, other.z );
+        }
+
+        @Override
+        public boolean equals( Object obj ) {
+            if (obj instanceof DoublePoint) {
+                final DoublePoint a = (DoublePoint) obj;
+                return Double.compare( x, a.x ) == 0 && Double.compare( y, a.y ) == 0;
+            }
+            else {
+                return false;
+            }
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * Double.hashCode( x ) + Double.hashCode( y );
         }
 
         public double getX() {
@@ -31,18 +53,47 @@ public abstract class Point<T extends Number & Comparable<T>> {
         public double getZ() {
             return z;
         }
+
+        public void set( DoublePoint other ) {
+            x = other.x;
+            y = other.y;
+            z = other.z;
+        }
+
+        public void setX( double x ) {
+            this.x = x;
+        }
+
+        public void setY( double y ) {
+            this.y = y;
+        }
+
+        public void setZ( double z ) {
+            this.z = z;
+        }
+
+        @Override
+        public String toString() {
+            return "Point [x=" + x + ", y=" + y + ", z=" + z + "]";
+        }
     }
 
-    public static class LongPoint extends Point<Long> {
+    public static class LongPoint extends Point {
         public static double getDeltaX(LongPoint pt1, LongPoint pt2 ) {
-            if (pt1.getY() == pt2.getY()) {
+            if (pt1.y == pt2.y) {
                 return Edge.HORIZONTAL;
             }
             else {
-                return (double) (pt2.getX() - pt1.getX()) / (pt2.getY() - pt1.getY());
+                return (double) (pt2.x - pt1.x) / (pt2.y - pt1.y);
             }
         }
 
+        protected long x;
+
+        protected long y;
+
+        protected long z;
+
         public LongPoint() {
             this( 0, 0 );
         }
@@ -52,11 +103,29 @@ public abstract class Point<T extends Number & Comparable<T>> {
         }
 
         public LongPoint( long x, long y, long z ) {
-            super( x, y, z );
+            this.x = x;
+            this.y = y;
+            this.z = z;
         }
 
         public LongPoint( LongPoint other ) {
-            super( other );
+            this( other.x, other.y, other.z );
+        }
+
+        @Override
+        public boolean equals( Object obj ) {
+            if (obj instanceof LongPoint) {
+                final LongPoint a = (LongPoint) obj;
+                return x == a.x && y == a.y;
+            }
+            else {
+                return false;
+            }
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * Long.hashCode( x ) + Long.hashCode( y );
         }
 
         public long getX() {
@@ -70,33 +139,48 @@ public abstract class Point<T extends Number & Comparable<T>> {
         public long getZ() {
             return z;
         }
-    }
 
-    private static class NumberComparator<T extends Number & Comparable<T>> implements Comparator<T> {
+        public void set( LongPoint other ) {
+            x = other.x;
+            y = other.y;
+            z = other.z;
+        }
+
+        public void setX( long x ) {
+            this.x = x;
+        }
+
+        public void setY( long y ) {
+            this.y = y;
+        }
+
+        public void setZ( long z ) {
+            this.z = z;
+        }
 
         @Override
-        public int compare( T a, T b ) throws ClassCastException {
-            return a.compareTo( b );
+        public String toString() {
+            return "Point [x=" + x + ", y=" + y + ", z=" + z + "]";
         }
     }
 
-    static boolean arePointsClose(Point<? extends Number> pt1, Point<? extends Number> pt2, double distSqrd ) {
-        final double dx = pt1.x.doubleValue() - pt2.x.doubleValue();
-        final double dy = pt1.y.doubleValue() - pt2.y.doubleValue();
+    static boolean arePointsClose(LongPoint pt1, LongPoint pt2, double distSqrd ) {
+        final double dx = (double) pt1.x - pt2.x;
+        final double dy = (double) pt1.y - pt2.y;
         return dx * dx + dy * dy <= distSqrd;
     }
 
-    static double distanceFromLineSqrd(Point<? extends Number> pt, Point<? extends Number> ln1, Point<? extends Number> ln2 ) {
+    static double distanceFromLineSqrd(LongPoint pt, LongPoint ln1, LongPoint ln2 ) {
         //The equation of a line in general form (Ax + By + C = 0)
         //given 2 points (x¹,y¹) & (x²,y²) is ...
         //(y¹ - y²)x + (x² - x¹)y + (y² - y¹)x¹ - (x² - x¹)y¹ = 0
         //A = (y¹ - y²); B = (x² - x¹); C = (y² - y¹)x¹ - (x² - x¹)y¹
         //perpendicular distance of point (x³,y³) = (Ax³ + By³ + C)/Sqrt(A² + B²)
         //see http://en.wikipedia.org/wiki/Perpendicular_distance
-        final double A = ln1.y.doubleValue() - ln2.y.doubleValue();
-        final double B = ln2.x.doubleValue() - ln1.x.doubleValue();
-        double C = A * ln1.x.doubleValue() + B * ln1.y.doubleValue();
-        C = A * pt.x.doubleValue() + B * pt.y.doubleValue() - C;
+        final double A = (double) ln1.y - ln2.y;
+        final double B = (double) ln2.x - ln1.x;
+        double C = A * ln1.x + B * ln1.y;
+        C = A * pt.x + B * pt.y - C;
         return C * C / (A * A + B * B);
     }
 
@@ -162,59 +246,7 @@ public abstract class Point<T extends Number & Comparable<T>> {
         }
     }
 
-    private final static NumberComparator NUMBER_COMPARATOR = new NumberComparator();
-
-    protected T x;
-
-    protected T y;
-
-    protected T z;
-
-    protected Point( Point<T> pt ) {
-        this( pt.x, pt.y, pt.z );
-    }
-
-    protected Point( T x, T y, T z ) {
-        this.x = x;
-        this.y = y;
-        this.z = z;
-    }
-
-    @Override
-    public boolean equals( Object obj ) {
-        if (obj == null) {
-            return false;
-        }
-        if (obj instanceof Point<?>) {
-            final Point<?> a = (Point<?>) obj;
-            return NUMBER_COMPARATOR.compare( x, a.x ) == 0 && NUMBER_COMPARATOR.compare( y, a.y ) == 0;
-        }
-        else {
-            return false;
-        }
-    }
-
-    public void set( Point<T> other ) {
-        x = other.x;
-        y = other.y;
-        z = other.z;
-    }
-
-    public void setX( T x ) {
-        this.x = x;
-    }
-
-    public void setY( T y ) {
-        this.y = y;
-    }
-
-    public void setZ( T z ) {
-        this.z = z;
-    }
-
-    @Override
-    public String toString() {
-        return "Point [x=" + x + ", y=" + y + ", z=" + z + "]";
+    protected Point() {
     }
 
-}// end struct IntPoint
\ No newline at end of file
+}// end struct IntPoint
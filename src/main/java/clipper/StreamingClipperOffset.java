@@ -0,0 +1,225 @@
+package clipper;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import clipper.Clipper.ClipType;
+import clipper.Clipper.EndType;
+import clipper.Clipper.JoinType;
+import clipper.Clipper.PolyFillType;
+import clipper.Clipper.PolyType;
+import clipper.Point.LongPoint;
+
+/**
+ * Offsets (buffers) a stream of paths by a positive delta in bounded memory.
+ * <p>
+ * Paths must be added in order of increasing minimum X. They are collected in
+ * batches of at least <code>batchSize</code> paths; each batch is offset with a {@link ClipperOffset} and unioned with the
+ * output polygons still pending from earlier batches. An output polygon is passed
+ * to the consumer as soon as it lies entirely to the left of the area which any
+ * later path can reach, so memory is bounded by the batch size plus the
+ * polygons along the sweep front rather than by the whole data set.
+ * <p>
+ * Output polygons are delivered as outer {@link PolyNode}s whose children are holes
+ * (holes may in turn contain nested outers), oriented as {@link ClipperOffset} orients its output.
+ * Orientations are fixed per batch, so a closed polygon with holes must be added
+ * with one of the <code>addPolygon</code> methods, which keep its rings in one batch.
+ * Adding a hole on its own with <code>addPath</code> may turn it into a shell.
+ *
+ */
+public class StreamingClipperOffset {
+    private static void addContours( DefaultClipper clpr, PolyNode node ) {
+        clpr.addPath( node.getPolygon(), PolyType.SUBJECT, true );
+        for (final PolyNode child : node.getChilds()) {
+            addContours( clpr, child );
+        }
+    }
+
+    private static long getMinX( List<LongPoint> contour ) {
+        long minX = Long.MAX_VALUE;
+        for (final LongPoint pt : contour) {
+            if (pt.getX() < minX) {
+                minX = pt.getX();
+            }
+        }
+        return minX;
+    }
+
+    private static long getMaxX( List<LongPoint> contour ) {
+        long maxX = Long.MIN_VALUE;
+        for (final LongPoint pt : contour) {
+            if (pt.getX() > maxX) {
+                maxX = pt.getX();
+            }
+        }
+        return maxX;
+    }
+
+    private final ClipperOffset offset;
+
+    private final DefaultClipper clipper = new DefaultClipper( Clipper.REVERSE_SOLUTION );
+
+    private final double delta;
+
+    //furthest distance an offset vertex can lie from its source vertex ...
+    private final long reach;
+
+    private final int batchSize;
+
+    private final Consumer<PolyNode> consumer;
+
+    private final List<PolyNode> pending = new ArrayList<>();
+
+    private int batchCount;
+
+    private long sweepX = Long.MIN_VALUE;
+
+    private final Paths batchSolution = new Paths();
+
+    public StreamingClipperOffset( double delta, int batchSize, Consumer<PolyNode> consumer ) {
+        this( delta, batchSize, 2, ClipperOffset.DEFAULT_ARC_TOLERANCE, consumer );
+    }
+
+    public StreamingClipperOffset( double delta, int batchSize, double miterLimit, double arcTolerance, Consumer<PolyNode> consumer ) {
+        if (!(delta > 0)) {
+            throw new IllegalArgumentException( "StreamingClipperOffset: delta must be positive" );
+        }
+        this.delta = delta;
+        this.batchSize = Math.max( batchSize, 1 );
+        this.consumer = consumer;
+        offset = new ClipperOffset( miterLimit, arcTolerance );
+        //miters are limited to miterLimit * delta, squares to sqrt(2) * delta ...
+        reach = (long) Math.ceil( delta * Math.max( miterLimit, 2 ) ) + 1;
+    }
+
+    public void addPath( Path path, JoinType joinType, EndType endType ) {
+        if (path.isEmpty()) {
+            return;
+        }
+        advance( getMinX( path ) );
+        offset.addPath( path, joinType, endType );
+        batchAdded( 1 );
+    }
+
+    public void addPath( LongPaths paths, int index, JoinType joinType, EndType endType ) {
+        final int start = paths.getStart( index );
+        final int end = paths.getEnd( index );
+        if (start == end) {
+            return;
+        }
+        long minX = Long.MAX_VALUE;
+        for (int i = start; i < end; i++) {
+            minX = Math.min( minX, paths.getX( i ) );
+        }
+        advance( minX );
+        offset.addPath( paths, index, joinType, endType );
+        batchAdded( 1 );
+    }
+
+    /**
+     * Adds a polygon as one unit, so that its holes are offset in the same batch as its shell.
+     *
+     * @param polygon the shell followed by its holes
+     */
+    public void addPolygon( Paths polygon, JoinType joinType, EndType endType ) {
+        long minX = Long.MAX_VALUE;
+        int count = 0;
+        for (final Path path : polygon) {
+            if (!path.isEmpty()) {
+                minX = Math.min( minX, getMinX( path ) );
+                count++;
+            }
+        }
+        if (count == 0) {
+            return;
+        }
+        advance( minX );
+        for (final Path path : polygon) {
+            if (!path.isEmpty()) {
+                offset.addPath( path, joinType, endType );
+            }
+        }
+        batchAdded( count );
+    }
+
+    /**
+     * Adds a polygon as one unit, so that its holes are offset in the same batch as its shell.
+     *
+     * @param paths the paths holding the polygon
+     * @param first the index of the shell; its holes follow it
+     * @param count the number of rings of the polygon
+     */
+    public void addPolygon( LongPaths paths, int first, int count, JoinType joinType, EndType endType ) {
+        long minX = Long.MAX_VALUE;
+        for (int i = paths.getStart( first ); i < paths.getEnd( first + count - 1 ); i++) {
+            minX = Math.min( minX, paths.getX( i ) );
+        }
+        if (minX == Long.MAX_VALUE) {
+            return;
+        }
+        advance( minX );
+        for (int index = first; index < first + count; index++) {
+            offset.addPath( paths, index, joinType, endType );
+        }
+        batchAdded( count );
+    }
+
+    /**
+     * Offsets any remaining batch and passes all pending output polygons to the consumer.
+     * The instance can then be used for a new stream.
+     */
+    public void finish() {
+        flush();
+        for (final PolyNode node : pending) {
+            consumer.accept( node );
+        }
+        pending.clear();
+        sweepX = Long.MIN_VALUE;
+    }
+
+    private void advance( long minX ) {
+        if (minX < sweepX) {
+            throw new IllegalStateException( "StreamingClipperOffset: paths must be added in order of increasing minimum X" );
+        }
+        sweepX = minX;
+    }
+
+    private void batchAdded( int count ) {
+        batchCount += count;
+        if (batchCount >= batchSize) {
+            flush();
+        }
+    }
+
+    private void flush() {
+        if (batchCount == 0) {
+            return;
+        }
+        offset.execute( batchSolution, delta );
+        offset.clear();
+        batchCount = 0;
+
+        //union the new batch with the polygons still open along the sweep front ...
+        clipper.addPaths( batchSolution, PolyType.SUBJECT, true );
+        batchSolution.clear();
+        for (final PolyNode node : pending) {
+            addContours( clipper, node );
+        }
+        pending.clear();
+        final PolyTree tree = new PolyTree();
+        clipper.execute( ClipType.UNION, tree, PolyFillType.NON_ZERO, PolyFillType.NON_ZERO );
+        clipper.clear();
+
+        //no later path can reach left of sweepX - reach ...
+        final long limit = sweepX - reach;
+        for (final PolyNode node : tree.getChilds()) {
+            if (getMaxX( node.getContour() ) < limit) {
+                consumer.accept( node );
+            }
+            else {
+                pending.add( node );
+            }
+        }
+    }
+}
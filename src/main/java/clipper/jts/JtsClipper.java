@@ -1,23 +1,27 @@
 package clipper.jts;
 
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
 
 import org.locationtech.jts.geom.CoordinateSequence;
+import org.locationtech.jts.geom.Envelope;
 import org.locationtech.jts.geom.Geometry;
 import org.locationtech.jts.geom.GeometryFactory;
-import org.locationtech.jts.geom.LineString;
 import org.locationtech.jts.geom.LinearRing;
 import org.locationtech.jts.geom.Polygon;
 import org.locationtech.jts.geom.PrecisionModel;
-import org.locationtech.jts.geom.impl.CoordinateArraySequenceFactory;
+import org.locationtech.jts.geom.impl.PackedCoordinateSequence;
+import org.locationtech.jts.index.strtree.STRtree;
 
 import clipper.Clipper;
 import clipper.ClipperOffset;
 import clipper.DefaultClipper;
+import clipper.LongPaths;
 import clipper.Path;
 import clipper.Paths;
-import clipper.Point;
 import clipper.Point.LongPoint;
 import clipper.PolyNode;
 import clipper.PolyTree;
@@ -25,6 +29,26 @@ import clipper.PolyTree;
 public class JtsClipper {
 
   private static GeometryFactory geomFact = new GeometryFactory();
+
+  /**
+   * Clippers are reused per thread, so that repeated clipping
+   * does not reallocate the clipper's internal structures.
+   */
+  private static final ThreadLocal<DefaultClipper> CLIPPER = ThreadLocal.withInitial(
+      () -> new DefaultClipper( Clipper.STRICTLY_SIMPLE ));
+
+  /**
+   * A clipper which has clipped more input points than this is dropped after the job,
+   * so that one huge job does not pin its pools on a pool thread for the life of the JVM.
+   */
+  private static final int MAX_CACHED_CLIPPER_POINTS = 1 << 16;
+
+  private static void release(DefaultClipper cp, int numPoints) {
+    cp.clear();
+    if (numPoints > MAX_CACHED_CLIPPER_POINTS) {
+      CLIPPER.remove();
+    }
+  }
   
   public static Geometry intersection(Geometry a, Geometry b, int scale) {
     return executeClip(a, b, Clipper.ClipType.INTERSECTION, scale);
@@ -40,7 +64,7 @@ public class JtsClipper {
   
   public static Geometry offset(Geometry a, int scale, double distance) {
     PrecisionModel pm = new PrecisionModel(scale);
-    Paths ap = toPaths(a, pm);
+    LongPaths ap = toPaths(a, pm);
     
     final ClipperOffset cp = new ClipperOffset( );
     cp.addPaths( ap, Clipper.JoinType.ROUND, Clipper.EndType.CLOSED_POLYGON );
@@ -53,15 +77,220 @@ public class JtsClipper {
     return result;
   }
   
+  /**
+   * Computes the union of the polygons of two geometries in parallel.
+   * 
+   * @see #unaryUnionParallel(Geometry, int)
+   */
+  public static Geometry unionParallel(Geometry a, Geometry b, int scale) {
+    PrecisionModel pm = new PrecisionModel(scale);
+    List<Part> parts = toParts(a, pm);
+    parts.addAll(toParts(b, pm));
+    return executeParallel(new ClipTask(strSort(parts), null, 0, parts.size()), pm);
+  }
+
+  /**
+   * Computes the union of the polygons of a geometry in parallel.
+   * The polygons are ordered along an STR packing of their envelopes,
+   * unioned in groups of spatially close polygons on the common ForkJoinPool,
+   * and the group results are merged pairwise (cascaded) up to the final result.
+   */
+  public static Geometry unaryUnionParallel(Geometry a, int scale) {
+    PrecisionModel pm = new PrecisionModel(scale);
+    List<Part> parts = toParts(a, pm);
+    return executeParallel(new ClipTask(strSort(parts), null, 0, parts.size()), pm);
+  }
+
+  /**
+   * Computes the intersection of the polygons of two geometries in parallel.
+   * The polygons of A are partitioned as for {@link #unaryUnionParallel(Geometry, int)};
+   * each group is intersected with the polygons of B whose envelopes it overlaps,
+   * and the group results are unioned cascade-style.
+   */
+  public static Geometry intersectionParallel(Geometry a, Geometry b, int scale) {
+    PrecisionModel pm = new PrecisionModel(scale);
+    List<Part> parts = toParts(a, pm);
+    STRtree clipIndex = new STRtree();
+    for (Part p : toParts(b, pm)) {
+      clipIndex.insert(p.env, p);
+    }
+    // build now, since a lazy build is not thread-safe
+    clipIndex.build();
+    return executeParallel(new ClipTask(strSort(parts), clipIndex, 0, parts.size()), pm);
+  }
+
+  /**
+   * The number of input polygons clipped together by a single parallel task.
+   */
+  private static final int PARALLEL_GROUP_SIZE = 64;
+
+  /**
+   * A polygon held as a range of clipper paths, with its envelope.
+   */
+  private static class Part {
+    final LongPaths paths;
+    final int start;
+    final int end;
+    final Envelope env;
+
+    Part(LongPaths paths, int start, int end, Envelope env) {
+      this.paths = paths;
+      this.start = start;
+      this.end = end;
+      this.env = env;
+    }
+
+    /**
+     * Adds the paths of the part to a clipper.
+     *
+     * @return the number of points added
+     */
+    int addTo(DefaultClipper cp, Clipper.PolyType polyType) {
+      for (int i = start; i < end; i++) {
+        cp.addPath( paths, i, polyType, true );
+      }
+      return paths.getEnd( end - 1 ) - paths.getStart( start );
+    }
+  }
+
+  /**
+   * Clips a range of STR-ordered parts. Small ranges are clipped directly;
+   * larger ones are split in two, computed in parallel and the results unioned.
+   * The root task writes its result into a PolyTree.
+   */
+  private static class ClipTask extends RecursiveTask<LongPaths> {
+    private static final long serialVersionUID = 1L;
+
+    private final List<Part> parts;
+    private final STRtree clipIndex;
+    private final int start;
+    private final int end;
+    PolyTree tree;
+
+    ClipTask(List<Part> parts, STRtree clipIndex, int start, int end) {
+      this.parts = parts;
+      this.clipIndex = clipIndex;
+      this.start = start;
+      this.end = end;
+    }
+
+    @Override
+    protected LongPaths compute() {
+      if (end - start <= PARALLEL_GROUP_SIZE) {
+        return clipGroup();
+      }
+      int mid = (start + end) >>> 1;
+      ClipTask left = new ClipTask(parts, clipIndex, start, mid);
+      ClipTask right = new ClipTask(parts, clipIndex, mid, end);
+      left.fork();
+      LongPaths rightPaths = right.compute();
+      LongPaths leftPaths = left.join();
+      
+      final DefaultClipper cp = CLIPPER.get();
+      try {
+        cp.addPaths( leftPaths, Clipper.PolyType.SUBJECT, true );
+        cp.addPaths( rightPaths, Clipper.PolyType.SUBJECT, true );
+        return execute(cp, Clipper.ClipType.UNION);
+      }
+      finally {
+        release(cp, leftPaths.getPointCount() + rightPaths.getPointCount());
+      }
+    }
+
+    private LongPaths clipGroup() {
+      final DefaultClipper cp = CLIPPER.get();
+      int numPoints = 0;
+      try {
+        Envelope env = new Envelope();
+        for (int i = start; i < end; i++) {
+          Part p = parts.get(i);
+          numPoints += p.addTo(cp, Clipper.PolyType.SUBJECT);
+          env.expandToInclude(p.env);
+        }
+        if (clipIndex == null) {
+          return execute(cp, Clipper.ClipType.UNION);
+        }
+        List<?> cands = clipIndex.query(env);
+        for (Object o : cands) {
+          numPoints += ((Part) o).addTo(cp, Clipper.PolyType.CLIP);
+        }
+        return execute(cp, Clipper.ClipType.INTERSECTION);
+      }
+      finally {
+        release(cp, numPoints);
+      }
+    }
+
+    private LongPaths execute(DefaultClipper cp, Clipper.ClipType op) {
+      if (tree != null) {
+        cp.execute( op, tree, Clipper.PolyFillType.NON_ZERO, Clipper.PolyFillType.NON_ZERO);
+        return null;
+      }
+      final LongPaths result = new LongPaths();
+      cp.execute( op, result, Clipper.PolyFillType.NON_ZERO, Clipper.PolyFillType.NON_ZERO);
+      return result;
+    }
+  }
+
+  private static Geometry executeParallel(ClipTask root, PrecisionModel pm) {
+    root.tree = new PolyTree();
+    ForkJoinPool.commonPool().invoke(root);
+    return fromPolyTree(root.tree, pm);
+  }
+
+  private static List<Part> toParts(Geometry a, PrecisionModel pm) {
+    List<Part> parts = new ArrayList<Part>(a.getNumGeometries());
+    LongPaths paths = new LongPaths(a.getNumGeometries(), a.getNumPoints());
+    for (int i = 0; i < a.getNumGeometries(); i++) {
+      Polygon poly = (Polygon) a.getGeometryN(i);
+      int start = paths.size();
+      addPolygon(poly, pm, paths);
+      if (paths.size() > start) {
+        parts.add(new Part(paths, start, paths.size(), poly.getEnvelopeInternal()));
+      }
+    }
+    return parts;
+  }
+
+  /**
+   * Orders parts along a Sort-Tile-Recursive packing of their envelopes,
+   * so that contiguous ranges of parts are spatially compact.
+   */
+  private static List<Part> strSort(List<Part> parts) {
+    Comparator<Part> byX = Comparator.comparingDouble(p -> p.env.getMinX() + p.env.getMaxX());
+    Comparator<Part> byY = Comparator.comparingDouble(p -> p.env.getMinY() + p.env.getMaxY());
+    parts.sort(byX);
+    int groups = (parts.size() + PARALLEL_GROUP_SIZE - 1) / PARALLEL_GROUP_SIZE;
+    int slices = (int) Math.ceil(Math.sqrt(groups));
+    int sliceSize = slices * PARALLEL_GROUP_SIZE;
+    // alternate the direction in each slice, so that ranges spanning
+    // two slices stay compact
+    for (int i = 0, k = 0; i < parts.size(); i += sliceSize, k++) {
+      parts.subList(i, Math.min(i + sliceSize, parts.size())).sort(k % 2 == 0 ? byY : byY.reversed());
+    }
+    return parts;
+  }
+
   private static Geometry executeClip(Geometry a, Geometry b, Clipper.ClipType op, int scale) {
     PrecisionModel pm = new PrecisionModel(scale);
     
-    final DefaultClipper cp = new DefaultClipper( Clipper.STRICTLY_SIMPLE );
-    Paths ap = toPaths(a, pm);
-    cp.addPaths( ap, Clipper.PolyType.SUBJECT, true );
-    if (b != null) {
-      Paths bp = toPaths(b, pm);
-      cp.addPaths( bp, Clipper.PolyType.CLIP, true );
+    final DefaultClipper cp = CLIPPER.get();
+    final PolyTree resultPaths = new PolyTree();
+    int numPoints = 0;
+    try {
+      LongPaths ap = toPaths(a, pm);
+      cp.addPaths( ap, Clipper.PolyType.SUBJECT, true );
+      numPoints += ap.getPointCount();
+      if (b != null) {
+        LongPaths bp = toPaths(b, pm);
+        cp.addPaths( bp, Clipper.PolyType.CLIP, true );
+        numPoints += bp.getPointCount();
+      }
+      boolean success = cp.execute( op, resultPaths, Clipper.PolyFillType.NON_ZERO, Clipper.PolyFillType.NON_ZERO);
+      // TODO: check success
+    }
+    finally {
+      release(cp, numPoints);
     }
 
     /*
@@ -70,9 +299,6 @@ public class JtsClipper {
     Geometry result = fromPaths(resultPaths, pm);
     */
     
-    final PolyTree resultPaths = new PolyTree();
-    boolean success = cp.execute( op, resultPaths, Clipper.PolyFillType.NON_ZERO, Clipper.PolyFillType.NON_ZERO);
-    // TODO: check success
     Geometry result = fromPolyTree(resultPaths, pm);
     
     return result;
@@ -90,44 +316,32 @@ public class JtsClipper {
     return geomFact.createMultiPolygon(GeometryFactory.toPolygonArray(polys));
   }
 
+  /**
+   * Converts an outer node and its holes to a polygon,
+   * then recurses into the islands nested inside the holes.
+   */
   private static void fromPolygon(PolyNode ch, PrecisionModel pm, List<Polygon> polys) {
-    List<LongPoint> path = ch.getContour();
-
     // shell
-    // assert: ch.isHole() == true;
-    LinearRing shell = toRing(path, pm);
-    LinearRing[] holes = fromPolygonHoles(ch, pm);
-    Polygon poly = geomFact.createPolygon(shell, holes);
-    polys.add(poly);
-
-    // TODO: iterate over polygons inside holes
-
-  }
-
- 
-  private static LinearRing[] fromPolygonHoles(PolyNode poly, PrecisionModel pm) {
-    List<PolyNode> holes = poly.getChilds();
-    if (holes.size() == 0) return null;
-    
+    // assert: ch.isHole() == false;
+    LinearRing shell = toRing(ch.getContour(), pm);
+    List<PolyNode> holes = ch.getChilds();
     LinearRing[] rings = new LinearRing[holes.size()];
     int i = 0;
     for (PolyNode hole : holes) {
       rings[i++] = toRing(hole.getContour(), pm);
     }
-    return rings;
-  }
+    Polygon poly = geomFact.createPolygon(shell, rings);
+    polys.add(poly);
 
-  private static LinearRing toRing(List<LongPoint> path,PrecisionModel pm) {
-    int n = path.size();
-    int ptsNum = n;
-      ptsNum++;
-    CoordinateSequence seq = CoordinateArraySequenceFactory.instance().create(ptsNum, 2);
-    
-    for (int i = 0; i < n; i++) {
-      copyPoint(path, i, pm, seq, i);
+    for (PolyNode hole : holes) {
+      for (PolyNode island : hole.getChilds()) {
+        fromPolygon(island, pm, polys);
+      }
     }
-    copyPoint(path, 0, pm, seq, n);
-    return geomFact.createLinearRing(seq);
+  }
+
+  private static LinearRing toRing(List<LongPoint> path, PrecisionModel pm) {
+    return geomFact.createLinearRing(toSequence(path, true, pm));
   }
   
   private static Geometry fromPaths(Paths resultPaths, PrecisionModel pm) {
@@ -142,55 +356,67 @@ public class JtsClipper {
     return geomFact.createMultiPolygon(polys);
   }
   
+  /**
+   * Copies a clipper path straight into a packed ordinate array,
+   * without creating Coordinate objects.
+   */
   private static CoordinateSequence toSequence(List<LongPoint> path, boolean ensureRing, PrecisionModel pm) {
     int n = path.size();
     int ptsNum = n;
     if (ensureRing) {
       ptsNum++;
     }
-    CoordinateSequence seq = CoordinateArraySequenceFactory.instance().create(ptsNum, 2);
-    
+    double scale = pm.getScale();
+    double[] ords = new double[2 * ptsNum];
     for (int i = 0; i < n; i++) {
-      copyPoint(path, i, pm, seq, i);
+      LongPoint p = path.get(i);
+      ords[2 * i] = p.getX() / scale;
+      ords[2 * i + 1] = p.getY() / scale;
     }
     if (ensureRing) {
-      copyPoint(path, 0, pm, seq, n);
+      ords[2 * n] = ords[0];
+      ords[2 * n + 1] = ords[1];
     }
-    return seq;
-  }
-
-  private static void copyPoint(List<LongPoint> path, int pi, PrecisionModel pm, CoordinateSequence seq, int i) {
-    LongPoint p = path.get(pi);
-    seq.setOrdinate(i, 0, p.getX() / pm.getScale());
-    seq.setOrdinate(i, 1, p.getY() / pm.getScale());
+    return new PackedCoordinateSequence.Double(ords, 2, 0);
   }
 
-  private static Paths toPaths(Geometry a, PrecisionModel pm) {
-    Paths pp = new Paths();
+  private static LongPaths toPaths(Geometry a, PrecisionModel pm) {
+    LongPaths paths = new LongPaths(a.getNumGeometries(), a.getNumPoints());
     for (int i = 0; i < a.getNumGeometries(); i++) {
-      Polygon poly = (Polygon) a.getGeometryN(i);
-      pp.add(toPath(poly, pm));
+      addPolygon((Polygon) a.getGeometryN(i), pm, paths);
     }
-    return pp;
+    return paths;
   }
 
-  private static Path toPath(Polygon a, PrecisionModel pm) {
-    Polygon poly = (Polygon) a;
-    LineString shell = poly.getExteriorRing();
-    Path p = toPath(shell, pm);
-    return p;
+  private static void addPolygon(Polygon poly, PrecisionModel pm, LongPaths paths) {
+    if (poly.isEmpty()) return;
+    addRing(poly.getExteriorRing().getCoordinateSequence(), true, pm, paths);
+    for (int i = 0; i < poly.getNumInteriorRing(); i++) {
+      addRing(poly.getInteriorRingN(i).getCoordinateSequence(), false, pm, paths);
+    }
   }
-  
-  private static Path toPath(LineString shell, PrecisionModel pm) {
-    Path path = new Path(shell.getNumPoints());
+
+  /**
+   * Adds a ring, reading its ordinates straight from the sequence.
+   * Shells are oriented with positive clipper area and holes with negative area,
+   * so that holes cancel their shell under the NON_ZERO fill rule.
+   * The closing point is omitted, since clipper paths are implicitly closed.
+   */
+  private static void addRing(CoordinateSequence seq, boolean isShell, PrecisionModel pm, LongPaths paths) {
+    int n = seq.size() - 1;
+    if (n < 3) return;
+    // twice the negated clipper area
+    double a = 0;
+    for (int i = 0, j = n - 1; i < n; j = i++) {
+      a += (seq.getX(j) + seq.getX(i)) * (seq.getY(j) - seq.getY(i));
+    }
+    boolean reverse = isShell ? a > 0 : a < 0;
     
-    CoordinateSequence seq = shell.getCoordinateSequence();
-    for (int i = 0; i < seq.size(); i++) {
-      long x = (int) Math.round(pm.getScale() * seq.getOrdinate(i, 0));
-      long y = (int) Math.round(pm.getScale() * seq.getOrdinate(i, 1));
-      LongPoint lp = new Point.LongPoint(x, y);
-      path.add(lp);
-    }
-    return path;
+    double scale = pm.getScale();
+    paths.startPath();
+    for (int k = 0; k < n; k++) {
+      int i = reverse ? n - 1 - k : k;
+      paths.add(Math.round(scale * seq.getX(i)), Math.round(scale * seq.getY(i)));
+    }
   }
 }
@@ -1,70 +1,282 @@
 package earcut4j;
 
 import java.util.ArrayList;
-import java.util.Comparator;
+import java.util.Arrays;
 import java.util.List;
 
+/**
+ * Triangulates polygons (with holes) by ear clipping.
+ * <p>
+ * Vertices are held in a pool of parallel primitive arrays rather than in node objects,
+ * and triangle indices are written to an <code>int[]</code> buffer.
+ * An instance keeps its pool and buffer between calls,
+ * so triangulating many polygons with one instance does not allocate per polygon.
+ * Instances are not thread-safe.
+ */
 public final class Earcut {
 
-    private Earcut() {
-    };
+    private static final int NIL = -1;
+
+    private static final int INITIAL_CAPACITY = 64;
+
+    // polygons with at least this many holes find hole bridges with an edge index
+    private static final int BRIDGE_INDEX_MIN_HOLES = 16;
+
+    private static final int MAX_CELLS = 1 << 18;
 
     /**
      * Triangulates the given polygon
-     * 
+     *
      * @param data is a flat array of vertice coordinates like [x0,y0, x1,y1, x2,y2, ...].
      * @return List containing groups of three vertice indices in the resulting array forms a triangle.
      */
     public static List<Integer> earcut(double[] data) {
         return earcut(data, null, 2);
     }
-    
+
     /**
      * Triangulates the given polygon
-     * 
+     *
      * @param data is a flat array of vertice coordinates like [x0,y0, x1,y1, x2,y2, ...].
      * @param holeIndices is an array of hole indices if any (e.g. [5, 8] for a 12-vertice input would mean one hole with vertices 5-7 and another with 8-11).
      * @param dim  is the number of coordinates per vertice in the input array
      * @return List containing groups of three vertice indices in the resulting array forms a triangle.
      */
     public static List<Integer> earcut(double[] data, int[] holeIndices, int dim) {
+        Earcut earcut = new Earcut();
+        int n = earcut.triangulate(data, holeIndices, dim);
+        int[] tris = earcut.getTriangles();
+        List<Integer> triangles = new ArrayList<>(n);
+        for (int k = 0; k < n; k++)
+            triangles.add(tris[k]);
+        return triangles;
+    }
+
+    /**
+     * Gets the largest number of triangle indices which triangulating a polygon can produce.
+     *
+     * @param numVertices the number of vertices in the polygon, including its holes
+     * @param numHoles the number of holes
+     * @return the required length of a triangle index buffer
+     */
+    public static int maxIndexCount(int numVertices, int numHoles) {
+        return 3 * Math.max(numVertices + 2 * numHoles - 2, 0);
+    }
+
+    // vertex index in the coordinates array (an offset into data)
+    private int[] i;
+
+    // vertex coordinates
+    private double[] x;
+    private double[] y;
+
+    // z-order curve value
+    private int[] z;
+
+    // previous and next vertex nodes in a polygon ring
+    private int[] prev;
+    private int[] next;
+
+    // previous and next nodes in z-order
+    private int[] prevZ;
+    private int[] nextZ;
+
+    // indicates whether this is a steiner point
+    private boolean[] steiner;
+
+    private int nodeCount;
+
+    private int[] holeQueue = new int[0];
+
+    private int[] holeQueueTmp = new int[0];
 
-        boolean hasHoles = holeIndices != null && holeIndices.length > 0;
-        int outerLen = hasHoles ? holeIndices[0] * dim : data.length;
+    // grid index of the outer ring's edges, used to find hole bridges
+    // when a polygon has many holes; each edge is recorded by its start node
+    // in every cell its bounding box overlaps
+    private boolean bridgeIndexed;
+    private int[] cellHead = new int[0];
+    private int[] cellEntryNode = new int[0];
+    private int[] cellEntryNext = new int[0];
+    private int cellEntryCount;
+    private int cellsX;
+    private int cellsY;
+    private double cellMinX;
+    private double cellMinY;
+    private double cellSize;
 
-        Node outerNode = linkedList(data, 0, outerLen, dim, true);
+    private int[] sortNodes = new int[0];
 
-        List<Integer> triangles = new ArrayList<>();
+    private int[] sortNodesTmp = new int[0];
 
-        if (outerNode == null || outerNode.next == outerNode.prev)
-            return triangles;
+    private final int[] radixCounts = new int[257];
 
-        double minX = 0;
-        double minY = 0;
+    private int[] triangles;
+
+    private int triangleCount;
+
+    // doubled areas of the input rings (holes negative) and of the output triangles
+    private boolean validating;
+    private double ringArea;
+    private double triangleArea;
+
+    private int dim;
+    private double minX;
+    private double minY;
+    private double invSize;
+
+    public Earcut() {
+        i = new int[INITIAL_CAPACITY];
+        x = new double[INITIAL_CAPACITY];
+        y = new double[INITIAL_CAPACITY];
+        z = new int[INITIAL_CAPACITY];
+        prev = new int[INITIAL_CAPACITY];
+        next = new int[INITIAL_CAPACITY];
+        prevZ = new int[INITIAL_CAPACITY];
+        nextZ = new int[INITIAL_CAPACITY];
+        steiner = new boolean[INITIAL_CAPACITY];
+        triangles = new int[3 * INITIAL_CAPACITY];
+    }
+
+    /**
+     * Sets whether triangulation computes the area deviation of its output
+     * (see {@link #getDeviation()}).
+     * The areas are accumulated as rings are read and triangles are emitted,
+     * so this costs one triangle area per triangle and no extra pass.
+     *
+     * @param validating true to compute the deviation
+     */
+    public void setValidating(boolean validating) {
+        this.validating = validating;
+    }
+
+    /**
+     * Gets the relative difference between the total area of the triangles
+     * produced by the last triangulation and the area of the input polygon
+     * (the shell area less the hole areas).
+     * A correct triangulation has a deviation of zero, up to rounding.
+     * Large values indicate a bad triangulation, as can happen for self-touching input.
+     *
+     * @return the area deviation, or NaN if validation is not enabled
+     */
+    public double getDeviation() {
+        if (!validating)
+            return Double.NaN;
+        if (ringArea == 0 && triangleArea == 0)
+            return 0;
+        return Math.abs((triangleArea - ringArea) / ringArea);
+    }
+
+    /**
+     * Gets the triangle index buffer written by the last call to {@link #triangulate(double[], int[], int)}.
+     * Only the number of entries returned by that call are valid.
+     * The buffer is reused (and may be replaced when it grows) by later calls.
+     *
+     * @return the triangle index buffer
+     */
+    public int[] getTriangles() {
+        return triangles;
+    }
+
+    /**
+     * Triangulates the given polygon into the triangle buffer of this instance.
+     *
+     * @param data is a flat array of vertice coordinates like [x0,y0, x1,y1, x2,y2, ...].
+     * @param holeIndices is an array of hole indices if any, or null
+     * @param dim  is the number of coordinates per vertice in the input array
+     * @return the number of triangle indices written to {@link #getTriangles()}
+     */
+    public int triangulate(double[] data, int[] holeIndices, int dim) {
+        int numHoles = holeIndices == null ? 0 : holeIndices.length;
+        ensureTriangleCapacity(maxIndexCount(data.length / dim, numHoles));
+        return triangulateInto(data, 0, data.length, holeIndices, numHoles, dim, triangles, 0);
+    }
+
+    /**
+     * Triangulates the given polygon into a caller-supplied buffer.
+     *
+     * @param data is a flat array of vertice coordinates like [x0,y0, x1,y1, x2,y2, ...].
+     * @param holeIndices is an array of hole indices if any, or null
+     * @param dim  is the number of coordinates per vertice in the input array
+     * @param triangles the buffer to write triangle indices to, of length at least {@link #maxIndexCount(int, int)}
+     * @return the number of triangle indices written
+     */
+    public int triangulate(double[] data, int[] holeIndices, int dim, int[] triangles) {
+        int numHoles = holeIndices == null ? 0 : holeIndices.length;
+        return triangulate(data, 0, data.length / dim, holeIndices, numHoles, dim, triangles, 0);
+    }
+
+    /**
+     * Triangulates a polygon stored in a range of a larger coordinate array,
+     * writing triangle indices into a caller-supplied buffer at a given position.
+     * This allows many polygons to be triangulated into shared vertex and index buffers.
+     * Hole indices and output triangle indices are vertex indices in the whole array,
+     * not relative to the start of the range.
+     *
+     * @param data is a flat array of vertice coordinates like [x0,y0, x1,y1, x2,y2, ...].
+     * @param start the index of the first vertex of the polygon
+     * @param end the index one past the last vertex of the polygon
+     * @param holeIndices the indices of the first vertex of each hole, or null
+     * @param numHoles the number of hole indices to use
+     * @param dim  is the number of coordinates per vertice in the input array
+     * @param triangles the buffer to write triangle indices to
+     * @param offset the position in the buffer to write at; the buffer must have
+     * at least {@link #maxIndexCount(int, int)} entries from this position
+     * @return the number of triangle indices written
+     */
+    public int triangulate(double[] data, int start, int end, int[] holeIndices, int numHoles, int dim, int[] triangles, int offset) {
+        if (triangles.length - offset < maxIndexCount(end - start, numHoles))
+            throw new IllegalArgumentException("Earcut: triangle buffer is too small");
+
+        int[] buffer = this.triangles;
+        try {
+            return triangulateInto(data, start * dim, end * dim, holeIndices, numHoles, dim, triangles, offset);
+        } finally {
+            this.triangles = buffer;
+        }
+    }
+
+    private int triangulateInto(double[] data, int start, int end, int[] holeIndices, int numHoles, int dim, int[] triangles, int offset) {
+        this.dim = dim;
+        this.triangles = triangles;
+        nodeCount = 0;
+        triangleCount = offset;
+        ringArea = 0;
+        triangleArea = 0;
+
+        boolean hasHoles = numHoles > 0;
+        int outerLen = hasHoles ? holeIndices[0] * dim : end;
+
+        int outerNode = linkedList(data, start, outerLen, true);
+
+        if (outerNode == NIL || next[outerNode] == prev[outerNode])
+            return 0;
+
+        minX = 0;
+        minY = 0;
         double maxX = 0;
         double maxY = 0;
-        double invSize = Double.MIN_VALUE;
+        invSize = Double.MIN_VALUE;
 
         if (hasHoles)
-            outerNode = eliminateHoles(data, holeIndices, outerNode, dim);
+            outerNode = eliminateHoles(data, end, holeIndices, numHoles, outerNode);
 
         // if the shape is not too simple, we'll use z-order curve hash later;
         // calculate polygon bbox
-        if (data.length > 80 * dim) {
-            minX = maxX = data[0];
-            minY = maxY = data[1];
-
-            for (int i = dim; i < outerLen; i += dim) {
-                double x = data[i];
-                double y = data[i + 1];
-                if (x < minX)
-                    minX = x;
-                if (y < minY)
-                    minY = y;
-                if (x > maxX)
-                    maxX = x;
-                if (y > maxY)
-                    maxY = y;
+        if (end - start > 80 * dim) {
+            minX = maxX = data[start];
+            minY = maxY = data[start + 1];
+
+            for (int k = start + dim; k < outerLen; k += dim) {
+                double px = data[k];
+                double py = data[k + 1];
+                if (px < minX)
+                    minX = px;
+                if (py < minY)
+                    minY = py;
+                if (px > maxX)
+                    maxX = px;
+                if (py > maxY)
+                    maxY = py;
             }
 
             // minX, minY and size are later used to transform coords into
@@ -73,60 +285,73 @@ public final class Earcut {
             invSize = invSize != 0.0 ? 1.0 / invSize : 0.0;
         }
 
-        earcutLinked(outerNode, triangles, dim, minX, minY, invSize, Integer.MIN_VALUE);
+        earcutLinked(outerNode, Integer.MIN_VALUE);
 
-        return triangles;
+        return triangleCount - offset;
+    }
+
+    private void ensureTriangleCapacity(int n) {
+        if (n > triangles.length)
+            triangles = new int[Math.max(n, 2 * triangles.length)];
     }
 
-    private static void earcutLinked(Node ear, List<Integer> triangles, int dim, double minX, double minY, double invSize, int pass) {
-        if (ear == null)
+    private void addTriangle(int a, int b, int c) {
+        if (validating)
+            triangleArea += Math.abs(area(a, b, c));
+        triangles[triangleCount++] = i[a] / dim;
+        triangles[triangleCount++] = i[b] / dim;
+        triangles[triangleCount++] = i[c] / dim;
+    }
+
+    private void earcutLinked(int ear, int pass) {
+        if (ear == NIL)
             return;
 
+        boolean hashed = invSize != Double.MIN_VALUE;
+
         // interlink polygon nodes in z-order
-        if (pass == Integer.MIN_VALUE && invSize != Double.MIN_VALUE)
-            indexCurve(ear, minX, minY, invSize);
+        if (pass == Integer.MIN_VALUE && hashed)
+            indexCurve(ear);
 
-        Node stop = ear;
+        int stop = ear;
 
         // iterate through ears, slicing them one by one
-        while (ear.prev != ear.next) {
-            Node prev = ear.prev;
-            Node next = ear.next;
+        while (prev[ear] != next[ear]) {
+            int p = prev[ear];
+            int n = next[ear];
 
-            if (invSize != Double.MIN_VALUE ? isEarHashed(ear, minX, minY, invSize) : isEar(ear)) {
+            if (hashed ? isEarHashed(ear) : isEar(ear)) {
                 // cut off the triangle
-                triangles.add(prev.i / dim);
-                triangles.add(ear.i / dim);
-                triangles.add(next.i / dim);
+                addTriangle(p, ear, n);
 
                 removeNode(ear);
 
                 // skipping the next vertice leads to less sliver triangles
-                ear = next.next;
-                stop = next.next;
+                ear = next[n];
+                stop = next[n];
 
                 continue;
             }
 
-            ear = next;
+            ear = n;
 
             // if we looped through the whole remaining polygon and can't find
             // any more ears
             if (ear == stop) {
                 // try filtering points and slicing again
                 if (pass == Integer.MIN_VALUE) {
-                    earcutLinked(filterPoints(ear, null), triangles, dim, minX, minY, invSize, 1);
+                    earcutLinked(filterPoints(ear, NIL), 1);
 
                     // if this didn't work, try curing all small
                     // self-intersections locally
                 } else if (pass == 1) {
-                    ear = cureLocalIntersections(filterPoints(ear, null), triangles, dim);
-                    earcutLinked(ear, triangles, dim, minX, minY, invSize, 2);
+                    ear = cureLocalIntersections(filterPoints(ear, NIL));
+                    earcutLinked(ear, 2);
 
                     // as a last resort, try splitting the remaining polygon
                     // into two
                 } else if (pass == 2) {
-                    splitEarcut(ear, triangles, dim, minX, minY, invSize);
+                    splitEarcut(ear);
                 }
 
                 break;
@@ -134,66 +359,66 @@ public final class Earcut {
         }
     }
 
-    private static void splitEarcut(Node start, List<Integer> triangles, int dim, double minX, double minY, double size) {
+    private void splitEarcut(int start) {
         // look for a valid diagonal that divides the polygon into two
-        Node a = start;
+        int a = start;
         do {
-            Node b = a.next.next;
-            while (b != a.prev) {
-                if (a.i != b.i && isValidDiagonal(a, b)) {
+            int b = next[next[a]];
+            while (b != prev[a]) {
+                if (i[a] != i[b] && isValidDiagonal(a, b)) {
                     // split the polygon in two by the diagonal
-                    Node c = splitPolygon(a, b);
+                    int c = splitPolygon(a, b);
 
                     // filter colinear points around the cuts
-                    a = filterPoints(a, a.next);
-                    c = filterPoints(c, c.next);
+                    a = filterPoints(a, next[a]);
+                    c = filterPoints(c, next[c]);
 
                     // run earcut on each half
-                    earcutLinked(a, triangles, dim, minX, minY, size, Integer.MIN_VALUE);
-                    earcutLinked(c, triangles, dim, minX, minY, size, Integer.MIN_VALUE);
+                    earcutLinked(a, Integer.MIN_VALUE);
+                    earcutLinked(c, Integer.MIN_VALUE);
                     return;
                 }
-                b = b.next;
+                b = next[b];
             }
-            a = a.next;
+            a = next[a];
         } while (a != start);
     }
 
-    private static boolean isValidDiagonal(Node a, Node b) {
-        //return a.next.i != b.i && a.prev.i != b.i && !intersectsPolygon(a, b) && locallyInside(a, b) && locallyInside(b, a) && middleInside(a, b);
-
-        return a.next.i != b.i && a.prev.i != b.i && !intersectsPolygon(a, b) && // dones't intersect other edges
+    private boolean isValidDiagonal(int a, int b) {
+        return i[next[a]] != i[b] && i[prev[a]] != i[b] && !intersectsPolygon(a, b) && // dones't intersect other edges
             (locallyInside(a, b) && locallyInside(b, a) && middleInside(a, b) && // locally visible
-            (area(a.prev, a, b.prev) != 0 || area(a, b.prev, b) != 0) || // does not create opposite-facing sectors
-            equals(a, b) && area(a.prev, a, a.next) > 0 && area(b.prev, b, b.next) > 0); // special zero-length case
+            (area(prev[a], a, prev[b]) != 0 || area(a, prev[b], b) != 0) || // does not create opposite-facing sectors
+            equals(a, b) && area(prev[a], a, next[a]) > 0 && area(prev[b], b, next[b]) > 0); // special zero-length case
     }
 
-    private static boolean middleInside(Node a, Node b) {
-        Node p = a;
+    private boolean middleInside(int a, int b) {
+        int p = a;
         boolean inside = false;
-        double px = (a.x + b.x) / 2;
-        double py = (a.y + b.y) / 2;
+        double px = (x[a] + x[b]) / 2;
+        double py = (y[a] + y[b]) / 2;
         do {
-            if (((p.y > py) != (p.next.y > py)) && (px < (p.next.x - p.x) * (py - p.y) / (p.next.y - p.y) + p.x))
+            int pn = next[p];
+            if (((y[p] > py) != (y[pn] > py)) && (px < (x[pn] - x[p]) * (py - y[p]) / (y[pn] - y[p]) + x[p]))
                 inside = !inside;
-            p = p.next;
+            p = pn;
         } while (p != a);
 
         return inside;
     }
 
-    private static boolean intersectsPolygon(Node a, Node b) {
-        Node p = a;
+    private boolean intersectsPolygon(int a, int b) {
+        int p = a;
         do {
-            if (p.i != a.i && p.next.i != a.i && p.i != b.i && p.next.i != b.i && intersects(p, p.next, a, b))
+            int pn = next[p];
+            if (i[p] != i[a] && i[pn] != i[a] && i[p] != i[b] && i[pn] != i[b] && intersects(p, pn, a, b))
                 return true;
-            p = p.next;
+            p = pn;
         } while (p != a);
 
         return false;
     }
 
-    private static boolean intersects(Node p1, Node q1, Node p2, Node q2) {
+    private boolean intersects(int p1, int q1, int p2, int q2) {
         if ((equals(p1, p2) && equals(q1, q2)) || (equals(p1, q2) && equals(p2, q1)))
             return true;
         double o1 = sign(area(p1, q1, p2));
@@ -217,107 +442,115 @@ public final class Earcut {
     }
 
     // for collinear points p, q, r, check if point q lies on segment pr
-    private static boolean onSegment(Node p, Node q, Node r) {
-        return q.x <= Math.max(p.x, r.x) && q.x >= Math.min(p.x, r.x) && q.y <= Math.max(p.y, r.y) && q.y >= Math.min(p.y, r.y);
+    private boolean onSegment(int p, int q, int r) {
+        return x[q] <= Math.max(x[p], x[r]) && x[q] >= Math.min(x[p], x[r]) && y[q] <= Math.max(y[p], y[r]) && y[q] >= Math.min(y[p], y[r]);
     }
 
     private static double sign(double num) {
         return num > 0 ? 1 : num < 0 ? -1 : 0;
     }
 
-    private static Node cureLocalIntersections(Node start, List<Integer> triangles, int dim) {
-        Node p = start;
+    private int cureLocalIntersections(int start) {
+        int p = start;
         do {
-            Node a = p.prev, b = p.next.next;
+            int a = prev[p], b = next[next[p]];
 
-            if (!equals(a, b) && intersects(a, p, p.next, b) && locallyInside(a, b) && locallyInside(b, a)) {
+            if (!equals(a, b) && intersects(a, p, next[p], b) && locallyInside(a, b) && locallyInside(b, a)) {
 
-                triangles.add(a.i / dim);
-                triangles.add(p.i / dim);
-                triangles.add(b.i / dim);
+                addTriangle(a, p, b);
 
                 // remove two nodes involved
                 removeNode(p);
-                removeNode(p.next);
+                removeNode(next[p]);
 
                 p = start = b;
             }
-            p = p.next;
+            p = next[p];
         } while (p != start);
 
-        return filterPoints(p, null);
+        return filterPoints(p, NIL);
     }
 
-    private static boolean isEar(Node ear) {
-        Node a = ear.prev, b = ear, c = ear.next;
+    private boolean isEar(int ear) {
+        int a = prev[ear], b = ear, c = next[ear];
 
         if (area(a, b, c) >= 0)
             return false; // reflex, can't be an ear
 
+        double[] x = this.x, y = this.y;
+        int[] prev = this.prev, next = this.next;
+        double ax = x[a], ay = y[a], bx = x[b], by = y[b], cx = x[c], cy = y[c];
+
         // now make sure we don't have other points inside the potential ear
-        Node p = ear.next.next;
+        int p = next[c];
 
-        while (p != ear.prev) {
-            if (pointInTriangle(a.x, a.y, b.x, b.y, c.x, c.y, p.x, p.y) && area(p.prev, p, p.next) >= 0)
+        while (p != a) {
+            if (pointInTriangle(ax, ay, bx, by, cx, cy, x[p], y[p]) && area(prev[p], p, next[p]) >= 0)
                 return false;
-            p = p.next;
+            p = next[p];
         }
 
         return true;
     }
 
-    private static boolean isEarHashed(Node ear, double minX, double minY, double invSize) {
-        Node a = ear.prev;
-        Node b = ear;
-        Node c = ear.next;
+    private boolean isEarHashed(int ear) {
+        int a = prev[ear];
+        int b = ear;
+        int c = next[ear];
 
         if (area(a, b, c) >= 0)
             return false; // reflex, can't be an ear
 
+        double[] x = this.x, y = this.y;
+        int[] prev = this.prev, next = this.next;
+        double ax = x[a], ay = y[a], bx = x[b], by = y[b], cx = x[c], cy = y[c];
+
         // triangle bbox; min & max are calculated like this for speed
-        double minTX = a.x < b.x ? (a.x < c.x ? a.x : c.x) : (b.x < c.x ? b.x : c.x), minTY = a.y < b.y ? (a.y < c.y ? a.y : c.y) : (b.y < c.y ? b.y : c.y),
-                maxTX = a.x > b.x ? (a.x > c.x ? a.x : c.x) : (b.x > c.x ? b.x : c.x), maxTY = a.y > b.y ? (a.y > c.y ? a.y : c.y) : (b.y > c.y ? b.y : c.y);
+        double minTX = ax < bx ? (ax < cx ? ax : cx) : (bx < cx ? bx : cx), minTY = ay < by ? (ay < cy ? ay : cy) : (by < cy ? by : cy),
+                maxTX = ax > bx ? (ax > cx ? ax : cx) : (bx > cx ? bx : cx), maxTY = ay > by ? (ay > cy ? ay : cy) : (by > cy ? by : cy);
 
         // z-order range for the current triangle bbox;
-        double minZ = zOrder(minTX, minTY, minX, minY, invSize);
-        double maxZ = zOrder(maxTX, maxTY, minX, minY, invSize);
+        int minZ = zOrder(minTX, minTY);
+        int maxZ = zOrder(maxTX, maxTY);
+
+        int[] z = this.z, prevZ = this.prevZ, nextZ = this.nextZ;
 
         // first look for points inside the triangle in increasing z-order
-        Node p = ear.prevZ;
-        Node n = ear.nextZ;
+        int p = prevZ[ear];
+        int n = nextZ[ear];
 
-        while (p != null && p.z >= minZ && n != null && n.z <= maxZ) {
-            if (p != ear.prev && p != ear.next && pointInTriangle(a.x, a.y, b.x, b.y, c.x, c.y, p.x, p.y) && area(p.prev, p, p.next) >= 0)
+        while (p != NIL && z[p] >= minZ && n != NIL && z[n] <= maxZ) {
+            if (p != a && p != c && pointInTriangle(ax, ay, bx, by, cx, cy, x[p], y[p]) && area(prev[p], p, next[p]) >= 0)
                 return false;
-            p = p.prevZ;
+            p = prevZ[p];
 
-            if (n != ear.prev && n != ear.next && pointInTriangle(a.x, a.y, b.x, b.y, c.x, c.y, n.x, n.y) && area(n.prev, n, n.next) >= 0)
+            if (n != a && n != c && pointInTriangle(ax, ay, bx, by, cx, cy, x[n], y[n]) && area(prev[n], n, next[n]) >= 0)
                 return false;
-            n = n.nextZ;
+            n = nextZ[n];
         }
 
         // look for remaining points in decreasing z-order
-        while (p != null && p.z >= minZ) {
-            if (p != ear.prev && p != ear.next && pointInTriangle(a.x, a.y, b.x, b.y, c.x, c.y, p.x, p.y) && area(p.prev, p, p.next) >= 0)
+        while (p != NIL && z[p] >= minZ) {
+            if (p != a && p != c && pointInTriangle(ax, ay, bx, by, cx, cy, x[p], y[p]) && area(prev[p], p, next[p]) >= 0)
                 return false;
-            p = p.prevZ;
+            p = prevZ[p];
         }
 
         // look for remaining points in increasing z-order
-        while (n != null && n.z <= maxZ) {
-            if (n != ear.prev && n != ear.next && pointInTriangle(a.x, a.y, b.x, b.y, c.x, c.y, n.x, n.y) && area(n.prev, n, n.next) >= 0)
+        while (n != NIL && z[n] <= maxZ) {
+            if (n != a && n != c && pointInTriangle(ax, ay, bx, by, cx, cy, x[n], y[n]) && area(prev[n], n, next[n]) >= 0)
                 return false;
-            n = n.nextZ;
+            n = nextZ[n];
         }
 
         return true;
     }
 
     // z-order of a point given coords and inverse of the longer side of data bbox
-    private static double zOrder(double x, double y, double minX, double minY, double invSize) {
+    private int zOrder(double px, double py) {
         // coords are transformed into non-negative 15-bit integer range
-        int lx = Double.valueOf(32767 * (x - minX) * invSize).intValue();
-        int ly = Double.valueOf(32767 * (y - minY) * invSize).intValue();
+        int lx = (int) (32767 * (px - minX) * invSize);
+        int ly = (int) (32767 * (py - minY) * invSize);
 
         lx = (lx | (lx << 8)) & 0x00FF00FF;
         lx = (lx | (lx << 4)) & 0x0F0F0F0F;
@@ -332,216 +565,321 @@ public final class Earcut {
         return lx | (ly << 1);
     }
 
-    private static void indexCurve(Node start, double minX, double minY, double invSize) {
-        Node p = start;
+    // interlink polygon nodes in z-order, sorted by their z-order values
+    private void indexCurve(int start) {
+        int n = 0;
+        int p = start;
+        do {
+            z[p] = zOrder(x[p], y[p]);
+            n++;
+            p = next[p];
+        } while (p != start);
+
+        if (sortNodes.length < n) {
+            sortNodes = new int[Math.max(n, 2 * sortNodes.length)];
+            sortNodesTmp = new int[sortNodes.length];
+        }
+        int[] nodes = sortNodes;
+        int k = 0;
         do {
-            if (p.z == Double.MIN_VALUE)
-                p.z = zOrder(p.x, p.y, minX, minY, invSize);
-            p.prevZ = p.prev;
-            p.nextZ = p.next;
-            p = p.next;
+            nodes[k++] = p;
+            p = next[p];
         } while (p != start);
 
-        p.prevZ.nextZ = null;
-        p.prevZ = null;
+        nodes = radixSortByZ(nodes, sortNodesTmp, n);
 
-        sortLinked(p);
+        int prevNode = NIL;
+        for (k = 0; k < n; k++) {
+            p = nodes[k];
+            prevZ[p] = prevNode;
+            if (prevNode != NIL)
+                nextZ[prevNode] = p;
+            prevNode = p;
+        }
+        nextZ[prevNode] = NIL;
     }
 
-    private static Node sortLinked(Node list) {
-        int inSize = 1;
-        
+    // stable LSD radix sort of nodes by z-order value, one byte per pass;
+    // returns whichever of the two arrays holds the sorted nodes
+    private int[] radixSortByZ(int[] nodes, int[] tmp, int n) {
+        int[] counts = radixCounts;
+        for (int shift = 0; shift < 32; shift += 8) {
+            Arrays.fill(counts, 0);
+            for (int k = 0; k < n; k++)
+                counts[radixDigit(z[nodes[k]], shift) + 1]++;
+
+            // skip passes in which all keys have the same digit
+            if (counts[radixDigit(z[nodes[0]], shift) + 1] == n)
+                continue;
 
-        int numMerges;
-        do {
-            Node p = list;
-            list = null;
-            Node tail = null;
-            numMerges = 0;
-
-            while (p != null) {
-                numMerges++;
-                Node q = p;
-                int pSize = 0;
-                for (int i = 0; i < inSize; i++) {
-                    pSize++;
-                    q = q.nextZ;
-                    if (q == null)
-                        break;
-                }
+            for (int d = 0; d < 256; d++)
+                counts[d + 1] += counts[d];
+            for (int k = 0; k < n; k++) {
+                int node = nodes[k];
+                tmp[counts[radixDigit(z[node], shift)]++] = node;
+            }
+            int[] t = nodes;
+            nodes = tmp;
+            tmp = t;
+        }
+        return nodes;
+    }
 
-                int qSize = inSize;
-
-                while (pSize > 0 || (qSize > 0 && q != null)) {
-                    Node e;
-                    if (pSize == 0) {
-                        e = q;
-                        q = q.nextZ;
-                        qSize--;
-                    } else if (qSize == 0 || q == null) {
-                        e = p;
-                        p = p.nextZ;
-                        pSize--;
-                    } else if (p.z <= q.z) {
-                        e = p;
-                        p = p.nextZ;
-                        pSize--;
-                    } else {
-                        e = q;
-                        q = q.nextZ;
-                        qSize--;
-                    }
+    // digit of a z-order value, ordering negative values (from points outside the bbox) first
+    private static int radixDigit(int key, int shift) {
+        return ((key ^ Integer.MIN_VALUE) >>> shift) & 0xFF;
+    }
 
-                    if (tail != null)
-                        tail.nextZ = e;
-                    else
-                        list = e;
+    private int eliminateHoles(double[] data, int dataEnd, int[] holeIndices, int len, int outerNode) {
+        if (holeQueue.length < len) {
+            holeQueue = new int[len];
+            holeQueueTmp = new int[len];
+        }
+        int numQueued = 0;
 
-                    e.prevZ = tail;
-                    tail = e;
-                }
+        for (int k = 0; k < len; k++) {
+            int start = holeIndices[k] * dim;
+            int end = k < len - 1 ? holeIndices[k + 1] * dim : dataEnd;
+            int list = linkedList(data, start, end, false);
+            if (list == NIL)
+                continue;
+            if (list == next[list])
+                steiner[list] = true;
+            holeQueue[numQueued++] = getLeftmost(list);
+        }
 
-                p = q;
+        sortByX(holeQueue, holeQueueTmp, numQueued);
+
+        if (numQueued >= BRIDGE_INDEX_MIN_HOLES)
+            buildBridgeIndex(outerNode);
+        try {
+            for (int k = 0; k < numQueued; k++) {
+                eliminateHole(holeQueue[k], outerNode);
+                outerNode = filterPoints(outerNode, next[outerNode]);
             }
+        } finally {
+            bridgeIndexed = false;
+        }
 
-            tail.nextZ = null;
-            inSize *= 2;
+        return outerNode;
+    }
 
-        } while (numMerges > 1);
+    // indexes the edges of the outer ring in a grid covering all rings;
+    // the index is kept up to date as holes are merged into the ring
+    private void buildBridgeIndex(int outerNode) {
+        double minX = x[0];
+        double minY = y[0];
+        double maxX = x[0];
+        double maxY = y[0];
+        for (int p = 1; p < nodeCount; p++) {
+            if (x[p] < minX)
+                minX = x[p];
+            if (y[p] < minY)
+                minY = y[p];
+            if (x[p] > maxX)
+                maxX = x[p];
+            if (y[p] > maxY)
+                maxY = y[p];
+        }
+        // aim for a few nodes per cell
+        int numCells = Math.max(1, Math.min(nodeCount / 4, MAX_CELLS));
+        double w = maxX - minX;
+        double h = maxY - minY;
+        cellSize = Math.max(Math.sqrt(w * h / numCells), Math.max(w, h) / numCells);
+        if (!(cellSize > 0))
+            cellSize = 1;
+        cellsX = Math.min((int) (w / cellSize) + 1, numCells);
+        cellsY = Math.min((int) (h / cellSize) + 1, numCells / cellsX + 1);
+        cellMinX = minX;
+        cellMinY = minY;
+        if (cellHead.length < cellsX * cellsY)
+            cellHead = new int[cellsX * cellsY];
+        Arrays.fill(cellHead, 0, cellsX * cellsY, NIL);
+        cellEntryCount = 0;
+        bridgeIndexed = true;
+
+        int p = outerNode;
+        do {
+            indexEdge(p);
+            p = next[p];
+        } while (p != outerNode);
+    }
 
-        return list;
+    private int cellX(double px) {
+        int c = (int) ((px - cellMinX) / cellSize);
+        return c < 0 ? 0 : c >= cellsX ? cellsX - 1 : c;
     }
 
-    private static Node eliminateHoles(double[] data, int[] holeIndices, Node outerNode, int dim) {
-        List<Node> queue = new ArrayList<>();
+    private int cellY(double py) {
+        int c = (int) ((py - cellMinY) / cellSize);
+        return c < 0 ? 0 : c >= cellsY ? cellsY - 1 : c;
+    }
 
-        int len = holeIndices.length;
-        for (int i = 0; i < len; i++) {
-            int start = holeIndices[i] * dim;
-            int end = i < len - 1 ? holeIndices[i + 1] * dim : data.length;
-            Node list = linkedList(data, start, end, dim, false);
-            if (list == list.next)
-                list.steiner = true;
-            queue.add(getLeftmost(list));
+    // records the edge starting at node p in every cell it overlaps;
+    // entries for edges which later change are left in place and re-checked when queried
+    private void indexEdge(int p) {
+        int pn = next[p];
+        int cx0 = cellX(Math.min(x[p], x[pn]));
+        int cx1 = cellX(Math.max(x[p], x[pn]));
+        int cy0 = cellY(Math.min(y[p], y[pn]));
+        int cy1 = cellY(Math.max(y[p], y[pn]));
+        int n = (cx1 - cx0 + 1) * (cy1 - cy0 + 1);
+        if (cellEntryCount + n > cellEntryNode.length) {
+            int len = Math.max(cellEntryCount + n, 2 * cellEntryNode.length);
+            cellEntryNode = Arrays.copyOf(cellEntryNode, len);
+            cellEntryNext = Arrays.copyOf(cellEntryNext, len);
         }
+        for (int cy = cy0; cy <= cy1; cy++) {
+            for (int cx = cx0; cx <= cx1; cx++) {
+                int c = cy * cellsX + cx;
+                cellEntryNode[cellEntryCount] = p;
+                cellEntryNext[cellEntryCount] = cellHead[c];
+                cellHead[c] = cellEntryCount++;
+            }
+        }
+    }
 
-        queue.sort(new Comparator<Node>() {
+    // whether a node is still linked into its ring
+    private boolean isLinked(int p) {
+        return next[prev[p]] == p;
+    }
 
-            @Override
-            public int compare(Node o1, Node o2) {
-                if (o1.x - o2.x > 0)
-                    return 1;
-                else if (o1.x - o2.x < 0)
-                    return -2;
-                return 0;
+    // stable bottom-up merge sort of nodes by increasing x
+    private void sortByX(int[] nodes, int[] tmp, int n) {
+        int[] src = nodes;
+        int[] dst = tmp;
+        for (int width = 1; width < n; width *= 2) {
+            for (int lo = 0; lo < n; lo += 2 * width) {
+                int mid = Math.min(lo + width, n);
+                int hi = Math.min(lo + 2 * width, n);
+                int l = lo, r = mid, k = lo;
+                while (l < mid && r < hi)
+                    dst[k++] = x[src[r]] < x[src[l]] ? src[r++] : src[l++];
+                while (l < mid)
+                    dst[k++] = src[l++];
+                while (r < hi)
+                    dst[k++] = src[r++];
             }
-        });
-
-        for (Node node : queue) {
-            eliminateHole(node, outerNode);
-            outerNode = filterPoints(outerNode, outerNode.next);
+            int[] t = src;
+            src = dst;
+            dst = t;
         }
-
-        return outerNode;
+        if (src != nodes)
+            System.arraycopy(src, 0, nodes, 0, n);
     }
 
-    private static Node filterPoints(Node start, Node end) {
-        if (start == null)
+    private int filterPoints(int start, int end) {
+        if (start == NIL)
             return start;
-        if (end == null)
+        if (end == NIL)
             end = start;
 
-        Node p = start;
+        int p = start;
         boolean again;
 
         do {
             again = false;
 
-            if (!p.steiner && equals(p, p.next) || area(p.prev, p, p.next) == 0) {
+            if (!steiner[p] && equals(p, next[p]) || area(prev[p], p, next[p]) == 0) {
                 removeNode(p);
-                p = end = p.prev;
-                if (p == p.next)
+                p = end = prev[p];
+                if (p == next[p])
                     break;
                 again = true;
             } else {
-                p = p.next;
+                p = next[p];
             }
         } while (again || p != end);
 
         return end;
     }
 
-    private static boolean equals(Node p1, Node p2) {
-        return p1.x == p2.x && p1.y == p2.y;
+    private boolean equals(int p1, int p2) {
+        return x[p1] == x[p2] && y[p1] == y[p2];
     }
 
-    private static double area(Node p, Node q, Node r) {
-        return (q.y - p.y) * (r.x - q.x) - (q.x - p.x) * (r.y - q.y);
+    private double area(int p, int q, int r) {
+        return (y[q] - y[p]) * (x[r] - x[q]) - (x[q] - x[p]) * (y[r] - y[q]);
     }
 
-    private static void eliminateHole(Node hole, Node outerNode) {
-        outerNode = findHoleBridge(hole, outerNode);
-        if (outerNode != null) {
-            Node b = splitPolygon(outerNode, hole);
-            
+    private void eliminateHole(int hole, int outerNode) {
+        outerNode = bridgeIndexed ? findHoleBridgeIndexed(hole) : findHoleBridge(hole, outerNode);
+        if (outerNode != NIL) {
+            if (bridgeIndexed) {
+                int p = hole;
+                do {
+                    indexEdge(p);
+                    p = next[p];
+                } while (p != hole);
+            }
+            int b = splitPolygon(outerNode, hole);
+
             // filter collinear points around the cuts
-            filterPoints(outerNode, outerNode.next);
-            filterPoints(b, b.next);
+            filterPoints(outerNode, next[outerNode]);
+            filterPoints(b, next[b]);
         }
     }
 
-    private static Node splitPolygon(Node a, Node b) {
-        Node a2 = new Node(a.i, a.x, a.y);
-        Node b2 = new Node(b.i, b.x, b.y);
-        Node an = a.next;
-        Node bp = b.prev;
+    private int splitPolygon(int a, int b) {
+        int a2 = createNode(i[a], x[a], y[a]);
+        int b2 = createNode(i[b], x[b], y[b]);
+        int an = next[a];
+        int bp = prev[b];
 
-        a.next = b;
-        b.prev = a;
+        next[a] = b;
+        prev[b] = a;
 
-        a2.next = an;
-        an.prev = a2;
+        next[a2] = an;
+        prev[an] = a2;
 
-        b2.next = a2;
-        a2.prev = b2;
+        next[b2] = a2;
+        prev[a2] = b2;
 
-        bp.next = b2;
-        b2.prev = bp;
+        next[bp] = b2;
+        prev[b2] = bp;
+
+        if (bridgeIndexed) {
+            indexEdge(a);
+            indexEdge(a2);
+            indexEdge(b2);
+            indexEdge(bp);
+        }
 
         return b2;
     }
 
     // David Eberly's algorithm for finding a bridge between hole and outer
     // polygon
-    private static Node findHoleBridge(Node hole, Node outerNode) {
-        Node p = outerNode;
-        double hx = hole.x;
-        double hy = hole.y;
+    private int findHoleBridge(int hole, int outerNode) {
+        int p = outerNode;
+        double hx = x[hole];
+        double hy = y[hole];
         double qx = -Double.MAX_VALUE;
-        Node m = null;
+        int m = NIL;
 
         // find a segment intersected by a ray from the hole's leftmost point to
         // the left;
         // segment's endpoint with lesser x will be potential connection point
         do {
-            if (hy <= p.y && hy >= p.next.y) {
-                double x = p.x + (hy - p.y) * (p.next.x - p.x) / (p.next.y - p.y);
-                if (x <= hx && x > qx) {
-                    qx = x;
-                    if (x == hx) {
-                        if (hy == p.y)
+            int pn = next[p];
+            if (hy <= y[p] && hy >= y[pn] && y[pn] != y[p]) {
+                double qpx = x[p] + (hy - y[p]) * (x[pn] - x[p]) / (y[pn] - y[p]);
+                if (qpx <= hx && qpx > qx) {
+                    qx = qpx;
+                    if (qpx == hx) {
+                        if (hy == y[p])
                             return p;
-                        if (hy == p.next.y)
-                            return p.next;
+                        if (hy == y[pn])
+                            return pn;
                     }
-                    m = p.x < p.next.x ? p : p.next;
+                    m = x[p] < x[pn] ? p : pn;
                 }
             }
-            p = p.next;
+            p = pn;
         } while (p != outerNode);
 
-        if (m == null)
-            return null;
+        if (m == NIL)
+            return NIL;
 
         if (hx == qx)
             return m; // hole touches outer segment; pick leftmost endpoint
@@ -552,39 +890,113 @@ public final class Earcut {
         // otherwise choose the point of the minimum angle with the ray as
         // connection point
 
-        Node stop = m;
-        double mx = m.x;
-        double my = m.y;
+        int stop = m;
+        double mx = x[m];
+        double my = y[m];
         double tanMin = Double.MAX_VALUE;
-        double tan;
 
         p = m;
 
-        while (p != stop) {
-            if (hx >= p.x && p.x >= mx && pointInTriangle(hy < my ? hx : qx, hy, mx, my, hy < my ? qx : hx, hy, p.x, p.y)) {
+        do {
+            double tan = bridgeTan(p, hole, qx, mx, my);
+            if (isBetterBridge(p, tan, m, tanMin)) {
+                m = p;
+                tanMin = tan;
+            }
+            p = next[p];
+        } while (p != stop);
 
-                tan = Math.abs(hy - p.y) / (hx - p.x); // tangential
+        return m;
+    }
 
-                if (locallyInside(p, hole) && (tan < tanMin || (tan == tanMin && (p.x > m.x || (p.x == m.x && sectorContainsSector(m, p)))))) {
-                    m = p;
-                    tanMin = tan;
+    // as findHoleBridge, but visiting only the edges and points in the cells
+    // of the bridge index which the ray and the search triangle overlap
+    private int findHoleBridgeIndexed(int hole) {
+        double hx = x[hole];
+        double hy = y[hole];
+        double qx = -Double.MAX_VALUE;
+        int m = NIL;
+
+        // walk the cells along the ray to the left, until the cell lies left of the
+        // nearest intersection found; any edge crossing the ray further right is in
+        // the cell holding the crossing point, which has already been visited
+        int row = cellY(hy) * cellsX;
+        for (int cx = cellX(hx); cx >= 0 && qx < cellMinX + (cx + 1) * cellSize; cx--) {
+            for (int e = cellHead[row + cx]; e != NIL; e = cellEntryNext[e]) {
+                int p = cellEntryNode[e];
+                if (!isLinked(p))
+                    continue;
+                int pn = next[p];
+                if (hy <= y[p] && hy >= y[pn] && y[pn] != y[p]) {
+                    double qpx = x[p] + (hy - y[p]) * (x[pn] - x[p]) / (y[pn] - y[p]);
+                    if (qpx <= hx && qpx > qx) {
+                        qx = qpx;
+                        if (qpx == hx) {
+                            if (hy == y[p])
+                                return p;
+                            if (hy == y[pn])
+                                return pn;
+                        }
+                        m = x[p] < x[pn] ? p : pn;
+                    }
                 }
             }
+        }
+
+        if (m == NIL)
+            return NIL;
+
+        if (hx == qx)
+            return m; // hole touches outer segment; pick leftmost endpoint
 
-            p = p.next;
+        double mx = x[m];
+        double my = y[m];
+        double tanMin = Double.MAX_VALUE;
+        int cx0 = cellX(mx);
+        int cx1 = cellX(hx);
+        int cy1 = cellY(Math.max(hy, my));
+
+        for (int cy = cellY(Math.min(hy, my)); cy <= cy1; cy++) {
+            for (int cx = cx0; cx <= cx1; cx++) {
+                for (int e = cellHead[cy * cellsX + cx]; e != NIL; e = cellEntryNext[e]) {
+                    int p = cellEntryNode[e];
+                    if (!isLinked(p))
+                        continue;
+                    double tan = bridgeTan(p, hole, qx, mx, my);
+                    if (isBetterBridge(p, tan, m, tanMin)) {
+                        m = p;
+                        tanMin = tan;
+                    }
+                }
+            }
         }
 
         return m;
     }
 
-    private static boolean locallyInside(Node a, Node b) {
-        return area(a.prev, a, a.next) < 0 ? area(a, b, a.next) >= 0 && area(a, a.prev, b) >= 0 : area(a, b, a.prev) < 0 || area(a, a.next, b) < 0;
+    // tangential of the angle between the ray from the hole and a point inside the triangle of
+    // hole point, ray intersection and bridge endpoint, or NaN if the point is not a candidate
+    private double bridgeTan(int p, int hole, double qx, double mx, double my) {
+        double hx = x[hole];
+        double hy = y[hole];
+        if (hx >= x[p] && x[p] >= mx && hx != x[p] && pointInTriangle(hy < my ? hx : qx, hy, mx, my, hy < my ? qx : hx, hy, x[p], y[p])
+                && locallyInside(p, hole))
+            return Math.abs(hy - y[p]) / (hx - x[p]);
+        return Double.NaN;
+    }
+
+    private boolean isBetterBridge(int p, double tan, int m, double tanMin) {
+        return tan < tanMin || (tan == tanMin && (x[p] > x[m] || (x[p] == x[m] && sectorContainsSector(m, p))));
+    }
+
+    private boolean locallyInside(int a, int b) {
+        return area(prev[a], a, next[a]) < 0 ? area(a, b, next[a]) >= 0 && area(a, prev[a], b) >= 0 : area(a, b, prev[a]) < 0 || area(a, next[a], b) < 0;
     }
 
     // whether sector in vertex m contains sector in vertex p in the same
     // coordinates
-    private static boolean sectorContainsSector(Node m, Node p) {
-        return area(m.prev, m, p.prev) < 0 && area(p.next, m, m.next) < 0;
+    private boolean sectorContainsSector(int m, int p) {
+        return area(prev[m], m, prev[p]) < 0 && area(next[p], m, next[m]) < 0;
     }
 
     private static boolean pointInTriangle(double ax, double ay, double bx, double by, double cx, double cy, double px, double py) {
@@ -592,114 +1004,105 @@ public final class Earcut {
                 && (bx - px) * (cy - py) - (cx - px) * (by - py) >= 0;
     }
 
-    private static Node getLeftmost(Node start) {
-        Node p = start;
-        Node leftmost = start;
+    private int getLeftmost(int start) {
+        int p = start;
+        int leftmost = start;
         do {
-            if (p.x < leftmost.x || (p.x == leftmost.x && p.y < leftmost.y))
+            if (x[p] < x[leftmost] || (x[p] == x[leftmost] && y[p] < y[leftmost]))
                 leftmost = p;
-            p = p.next;
+            p = next[p];
         } while (p != start);
         return leftmost;
     }
 
-    private static Node linkedList(double[] data, int start, int end, int dim, boolean clockwise) {
-        Node last = null;
-        if (clockwise == (signedArea(data, start, end, dim) > 0)) {
-            for (int i = start; i < end; i += dim) {
-                last = insertNode(i, data[i], data[i + 1], last);
+    private int linkedList(double[] data, int start, int end, boolean clockwise) {
+        int last = NIL;
+        double ringSignedArea = signedArea(data, start, end, dim);
+        if (validating)
+            ringArea += clockwise ? Math.abs(ringSignedArea) : -Math.abs(ringSignedArea);
+        if (clockwise == (ringSignedArea > 0)) {
+            for (int k = start; k < end; k += dim) {
+                last = insertNode(k, data[k], data[k + 1], last);
             }
         } else {
-            for (int i = (end - dim); i >= start; i -= dim) {
-                last = insertNode(i, data[i], data[i + 1], last);
+            for (int k = (end - dim); k >= start; k -= dim) {
+                last = insertNode(k, data[k], data[k + 1], last);
             }
         }
 
-        if (last != null && equals(last, last.next)) {
+        if (last != NIL && equals(last, next[last])) {
             removeNode(last);
-            last = last.next;
+            last = next[last];
         }
         return last;
     }
 
-    private static void removeNode(Node p) {
-        p.next.prev = p.prev;
-        p.prev.next = p.next;
+    private void removeNode(int p) {
+        prev[next[p]] = prev[p];
+        next[prev[p]] = next[p];
 
-        if (p.prevZ != null) {
-            p.prevZ.nextZ = p.nextZ;
+        if (prevZ[p] != NIL) {
+            nextZ[prevZ[p]] = nextZ[p];
         }
-        if (p.nextZ != null) {
-            p.nextZ.prevZ = p.prevZ;
+        if (nextZ[p] != NIL) {
+            prevZ[nextZ[p]] = prevZ[p];
         }
+
+        if (bridgeIndexed)
+            indexEdge(prev[p]);
     }
 
-    private static Node insertNode(int i, double x, double y, Node last) {
-        Node p = new Node(i, x, y);
+    private int insertNode(int vi, double px, double py, int last) {
+        int p = createNode(vi, px, py);
 
-        if (last == null) {
-            p.prev = p;
-            p.next = p;
+        if (last == NIL) {
+            prev[p] = p;
+            next[p] = p;
         } else {
-            p.next = last.next;
-            p.prev = last;
-            last.next.prev = p;
-            last.next = p;
+            next[p] = next[last];
+            prev[p] = last;
+            prev[next[last]] = p;
+            next[last] = p;
         }
         return p;
     }
 
+    private int createNode(int vi, double px, double py) {
+        if (nodeCount == i.length)
+            growNodes();
+        int p = nodeCount++;
+        i[p] = vi;
+        x[p] = px;
+        y[p] = py;
+        z[p] = 0;
+        prev[p] = NIL;
+        next[p] = NIL;
+        prevZ[p] = NIL;
+        nextZ[p] = NIL;
+        steiner[p] = false;
+        return p;
+    }
+
+    private void growNodes() {
+        int n = 2 * i.length;
+        i = Arrays.copyOf(i, n);
+        x = Arrays.copyOf(x, n);
+        y = Arrays.copyOf(y, n);
+        z = Arrays.copyOf(z, n);
+        prev = Arrays.copyOf(prev, n);
+        next = Arrays.copyOf(next, n);
+        prevZ = Arrays.copyOf(prevZ, n);
+        nextZ = Arrays.copyOf(nextZ, n);
+        steiner = Arrays.copyOf(steiner, n);
+    }
+
     private static double signedArea(double[] data, int start, int end, int dim) {
         double sum = 0;
         int j = end - dim;
-        for (int i = start; i < end; i += dim) {
-            sum += (data[j] - data[i]) * (data[i + 1] + data[j + 1]);
-            j = i;
+        for (int k = start; k < end; k += dim) {
+            sum += (data[j] - data[k]) * (data[k + 1] + data[j + 1]);
+            j = k;
         }
         return sum;
     }
-
-    private static class Node {
-
-        int i;
-        double x;
-        double y;
-        double z;
-        boolean steiner;
-
-        Node prev;
-        Node next;
-        Node prevZ;
-        Node nextZ;
-
-        Node(int i, double x, double y) {
-            // vertice index in coordinates array
-            this.i = i;
-
-            // vertex coordinates
-            this.x = x;
-            this.y = y;
-
-            // previous and next vertice nodes in a polygon ring
-            this.prev = null;
-            this.next = null;
-
-            // z-order curve value
-            this.z = Double.MIN_VALUE;
-
-            // previous and next nodes in z-order
-            this.prevZ = null;
-            this.nextZ = null;
-
-            // indicates whether this is a steiner point
-            this.steiner = false;
-        }
-
-        @Override
-        public String toString() {
-            StringBuilder sb = new StringBuilder();
-            sb.append("{i: ").append(i).append(", x: ").append(x).append(", y: ").append(y).append(", prev: ").append(prev).append(", next: ").append(next);
-            return sb.toString();
-        }
-    }
 }
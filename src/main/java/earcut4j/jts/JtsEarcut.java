@@ -0,0 +1,240 @@
+package earcut4j.jts;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.locationtech.jts.geom.CoordinateSequence;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.geom.Polygon;
+
+import earcut4j.Earcut;
+
+/**
+ * Triangulates JTS polygons with {@link Earcut}.
+ * <p>
+ * Ring vertices are read directly from each ring's {@link CoordinateSequence}
+ * into the flat array Earcut uses, without materializing {@link org.locationtech.jts.geom.Coordinate}s.
+ */
+public class JtsEarcut {
+
+  /**
+   * Polygons are triangulated in parallel in groups of this many.
+   */
+  private static final int PARALLEL_GROUP_SIZE = 64;
+
+  /**
+   * Triangulators are reused per thread, so that repeated triangulation
+   * does not reallocate the node pool and triangle buffer.
+   */
+  private static final ThreadLocal<Earcut> EARCUT = ThreadLocal.withInitial(Earcut::new);
+
+  /**
+   * Hole index scratch buffers, reused per thread.
+   */
+  private static final ThreadLocal<int[][]> HOLE_INDICES = ThreadLocal.withInitial(() -> new int[1][16]);
+
+  /**
+   * A triangulator which has triangulated a polygon with more vertices than this is dropped afterwards,
+   * so that one huge polygon does not pin its node pool on a pool thread for the life of the JVM.
+   */
+  private static final int MAX_CACHED_VERTICES = 1 << 16;
+
+  public static TriangleMesh triangulate(Polygon poly) {
+    double[] data = new double[2 * ringVertexCount(poly)];
+    int[] holeIndices = new int[poly.getNumInteriorRing()];
+    addPolygon(poly, data, 0, holeIndices);
+
+    Earcut earcut = EARCUT.get();
+    int n = earcut.triangulate(data, holeIndices, 2);
+    int[] indices = Arrays.copyOf(earcut.getTriangles(), n);
+    if (data.length / 2 > MAX_CACHED_VERTICES) {
+      EARCUT.remove();
+    }
+    return new TriangleMesh(data, indices, poly.getFactory());
+  }
+
+  /**
+   * Triangulates all polygons of a geometry (such as a MultiPolygon) in parallel.
+   * 
+   * @see #triangulateParallel(List, GeometryFactory)
+   */
+  public static TriangleMesh triangulateParallel(Geometry geom) {
+    List<Polygon> polys = new ArrayList<Polygon>();
+    addPolygons(geom, polys);
+    return triangulateParallel(polys, geom.getFactory());
+  }
+
+  /**
+   * Triangulates a stream of polygons in parallel.
+   * 
+   * @see #triangulateParallel(List, GeometryFactory)
+   */
+  public static TriangleMesh triangulateParallel(Stream<Polygon> polys, GeometryFactory geomFact) {
+    return triangulateParallel(polys.collect(Collectors.toList()), geomFact);
+  }
+
+  /**
+   * Triangulates a list of polygons in parallel, using the common fork-join pool.
+   * The result has one part per polygon, in list order.
+   * All vertices and triangles are stored in one shared vertex buffer and one shared index buffer.
+   */
+  public static TriangleMesh triangulateParallel(List<Polygon> polys, GeometryFactory geomFact) {
+    int n = polys.size();
+    //--- vertex offsets are exact; triangles are written at their maximum possible offsets
+    int[] vertexOffsets = new int[n + 1];
+    int[] maxIndexOffsets = new int[n + 1];
+    for (int i = 0; i < n; i++) {
+      Polygon poly = polys.get(i);
+      int nv = ringVertexCount(poly);
+      vertexOffsets[i + 1] = vertexOffsets[i] + nv;
+      maxIndexOffsets[i + 1] = maxIndexOffsets[i] + Earcut.maxIndexCount(nv, poly.getNumInteriorRing());
+    }
+    double[] vertices = new double[2 * vertexOffsets[n]];
+    int[] indices = new int[maxIndexOffsets[n]];
+    int[] indexCounts = new int[n];
+
+    ForkJoinPool.commonPool().invoke(new TriangulateTask(polys, vertices, vertexOffsets,
+        indices, maxIndexOffsets, indexCounts, 0, n));
+
+    //--- compact the index buffer; parts only move towards the start
+    int[] indexOffsets = new int[n + 1];
+    for (int i = 0; i < n; i++) {
+      int offset = indexOffsets[i];
+      if (offset != maxIndexOffsets[i]) {
+        System.arraycopy(indices, maxIndexOffsets[i], indices, offset, indexCounts[i]);
+      }
+      indexOffsets[i + 1] = offset + indexCounts[i];
+    }
+    if (indexOffsets[n] < indices.length) {
+      indices = Arrays.copyOf(indices, indexOffsets[n]);
+    }
+    return new TriangleMesh(vertices, indices, vertexOffsets, indexOffsets, geomFact);
+  }
+
+  private static void addPolygons(Geometry geom, List<Polygon> polys) {
+    if (geom instanceof Polygon) {
+      polys.add((Polygon) geom);
+      return;
+    }
+    for (int i = 0; i < geom.getNumGeometries(); i++) {
+      Geometry g = geom.getGeometryN(i);
+      if (g != geom) {
+        addPolygons(g, polys);
+      }
+    }
+  }
+
+  /**
+   * Triangulates a range of polygons into the shared buffers,
+   * splitting the range until it is no larger than a group.
+   */
+  private static class TriangulateTask extends RecursiveAction {
+
+    private static final long serialVersionUID = 1L;
+
+    private final List<Polygon> polys;
+    private final double[] vertices;
+    private final int[] vertexOffsets;
+    private final int[] indices;
+    private final int[] indexOffsets;
+    private final int[] indexCounts;
+    private final int start;
+    private final int end;
+
+    TriangulateTask(List<Polygon> polys, double[] vertices, int[] vertexOffsets,
+        int[] indices, int[] indexOffsets, int[] indexCounts, int start, int end) {
+      this.polys = polys;
+      this.vertices = vertices;
+      this.vertexOffsets = vertexOffsets;
+      this.indices = indices;
+      this.indexOffsets = indexOffsets;
+      this.indexCounts = indexCounts;
+      this.start = start;
+      this.end = end;
+    }
+
+    @Override
+    protected void compute() {
+      if (end - start <= PARALLEL_GROUP_SIZE) {
+        triangulateGroup();
+        return;
+      }
+      int mid = (start + end) >>> 1;
+      TriangulateTask left = new TriangulateTask(polys, vertices, vertexOffsets,
+          indices, indexOffsets, indexCounts, start, mid);
+      TriangulateTask right = new TriangulateTask(polys, vertices, vertexOffsets,
+          indices, indexOffsets, indexCounts, mid, end);
+      invokeAll(left, right);
+    }
+
+    private void triangulateGroup() {
+      Earcut earcut = EARCUT.get();
+      int[][] holeScratch = HOLE_INDICES.get();
+      int maxVertices = 0;
+      for (int i = start; i < end; i++) {
+        Polygon poly = polys.get(i);
+        int numHoles = poly.getNumInteriorRing();
+        if (holeScratch[0].length < numHoles) {
+          holeScratch[0] = new int[Math.max(numHoles, 2 * holeScratch[0].length)];
+        }
+        int[] holeIndices = holeScratch[0];
+        addPolygon(poly, vertices, vertexOffsets[i], holeIndices);
+        indexCounts[i] = earcut.triangulate(vertices, vertexOffsets[i], vertexOffsets[i + 1],
+            holeIndices, numHoles, 2, indices, indexOffsets[i]);
+        maxVertices = Math.max(maxVertices, vertexOffsets[i + 1] - vertexOffsets[i]);
+      }
+      if (maxVertices > MAX_CACHED_VERTICES) {
+        EARCUT.remove();
+        HOLE_INDICES.remove();
+      }
+    }
+  }
+
+  /**
+   * Copies the rings of a polygon into a flat array, starting at a given vertex,
+   * and records the first vertex of each hole.
+   */
+  private static void addPolygon(Polygon poly, double[] data, int vertexStart, int[] holeIndices) {
+    int pos = addRing(poly.getExteriorRing().getCoordinateSequence(), data, 2 * vertexStart);
+    for (int i = 0; i < poly.getNumInteriorRing(); i++) {
+      holeIndices[i] = pos / 2;
+      pos = addRing(poly.getInteriorRingN(i).getCoordinateSequence(), data, pos);
+    }
+  }
+
+  /**
+   * Counts the vertices of all rings of a polygon, excluding closing points.
+   */
+  static int ringVertexCount(Polygon poly) {
+    int n = ringVertexCount(poly.getExteriorRing().getCoordinateSequence());
+    for (int i = 0; i < poly.getNumInteriorRing(); i++) {
+      n += ringVertexCount(poly.getInteriorRingN(i).getCoordinateSequence());
+    }
+    return n;
+  }
+
+  private static int ringVertexCount(CoordinateSequence seq) {
+    return Math.max(seq.size() - 1, 0);
+  }
+
+  /**
+   * Copies the vertices of a ring (without the closing point) into a flat array.
+   *
+   * @return the position in the array after the ring
+   */
+  static int addRing(CoordinateSequence seq, double[] data, int pos) {
+    //--- earcut does not need closing points
+    int n = ringVertexCount(seq);
+    for (int i = 0; i < n; i++) {
+      data[pos++] = seq.getX(i);
+      data[pos++] = seq.getY(i);
+    }
+    return pos;
+  }
+}
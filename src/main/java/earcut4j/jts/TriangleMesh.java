@@ -0,0 +1,133 @@
+package earcut4j.jts;
+
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.geom.Polygon;
+import org.locationtech.jts.geom.impl.PackedCoordinateSequence;
+
+/**
+ * An indexed triangle mesh: a flat vertex array (x0, y0, x1, y1, ...)
+ * and an index buffer in which each group of three vertex indices forms a triangle.
+ * <p>
+ * A mesh may hold several parts (one per triangulated polygon) in shared buffers.
+ * Part <code>k</code> owns the vertices from {@link #getVertexOffset(int) getVertexOffset(k)}
+ * and the indices from {@link #getIndexOffset(int) getIndexOffset(k)},
+ * up to the offsets of part <code>k + 1</code>.
+ * Indices always refer to vertices of the whole mesh.
+ * <p>
+ * The mesh is the primary output of triangulation.
+ * JTS triangle polygons are only created on request, by {@link #getTriangle(int)}
+ * or {@link #toGeometry()}.
+ */
+public class TriangleMesh {
+
+  private final double[] vertices;
+  private final int[] indices;
+  private final int[] vertexOffsets;
+  private final int[] indexOffsets;
+  private final GeometryFactory geomFact;
+  private Geometry geometry;
+
+  public TriangleMesh(double[] vertices, int[] indices, GeometryFactory geomFact) {
+    this(vertices, indices,
+        new int[] { 0, vertices.length / 2 },
+        new int[] { 0, indices.length },
+        geomFact);
+  }
+
+  /**
+   * Creates a mesh with several parts.
+   *
+   * @param vertexOffsets the first vertex of each part, followed by the vertex count
+   * @param indexOffsets the first index of each part, followed by the index count
+   */
+  public TriangleMesh(double[] vertices, int[] indices, int[] vertexOffsets, int[] indexOffsets, GeometryFactory geomFact) {
+    this.vertices = vertices;
+    this.indices = indices;
+    this.vertexOffsets = vertexOffsets;
+    this.indexOffsets = indexOffsets;
+    this.geomFact = geomFact;
+  }
+
+  public int getPartCount() {
+    return vertexOffsets.length - 1;
+  }
+
+  /**
+   * Gets the index of the first vertex of a part.
+   * For <code>part == getPartCount()</code> this is the vertex count.
+   */
+  public int getVertexOffset(int part) {
+    return vertexOffsets[part];
+  }
+
+  /**
+   * Gets the position of the first index of a part in the index buffer.
+   * For <code>part == getPartCount()</code> this is the index count.
+   */
+  public int getIndexOffset(int part) {
+    return indexOffsets[part];
+  }
+
+  /**
+   * Gets the vertex coordinates, as x0, y0, x1, y1, ...
+   */
+  public double[] getVertices() {
+    return vertices;
+  }
+
+  public int getVertexCount() {
+    return vertices.length / 2;
+  }
+
+  /**
+   * Gets the triangle index buffer.
+   * Indices refer to vertices, not to positions in the vertex array.
+   */
+  public int[] getIndices() {
+    return indices;
+  }
+
+  public int getTriangleCount() {
+    return indices.length / 3;
+  }
+
+  public double getX(int vertex) {
+    return vertices[2 * vertex];
+  }
+
+  public double getY(int vertex) {
+    return vertices[2 * vertex + 1];
+  }
+
+  /**
+   * Creates a polygon for a triangle of the mesh.
+   */
+  public Polygon getTriangle(int tri) {
+    int i0 = indices[3 * tri];
+    int i1 = indices[3 * tri + 1];
+    int i2 = indices[3 * tri + 2];
+    double[] ords = new double[] {
+        getX(i0), getY(i0),
+        getX(i1), getY(i1),
+        getX(i2), getY(i2),
+        getX(i0), getY(i0)
+    };
+    return geomFact.createPolygon(new PackedCoordinateSequence.Double(ords, 2, 0));
+  }
+
+  /**
+   * Gets the triangles of the mesh as a JTS geometry.
+   * The geometry is created on the first call.
+   */
+  public Geometry toGeometry() {
+    if (geometry == null) {
+      Polygon[] tris = new Polygon[getTriangleCount()];
+      for (int i = 0; i < tris.length; i++) {
+        tris[i] = getTriangle(i);
+      }
+      geometry = geomFact.createMultiPolygon(tris);
+    }
+    return geometry;
+  }
+}
@@ -22,13 +22,6 @@ import org.locationtech.jts.geom.CoordinateSequence;
 import org.locationtech.jts.geom.Envelope;
 import org.locationtech.jts.geom.Geometry;
 import org.locationtech.jts.geom.GeometryFactory;
-import org.locationtech.jts.index.SpatialIndex;
-import org.locationtech.jts.index.quadtree.Quadtree;
-import org.locationtech.jts.index.strtree.Boundable;
-import org.locationtech.jts.index.strtree.STRtree;
-import org.locationtech.jts.index.strtree.AbstractNode;
-import org.locationtech.jts.index.strtree.ItemBoundable;
-import org.locationtech.jts.util.Assert;
 
 /**
  * A very fast 2D concave hull algorithm. It generates a general outline of a point set.
@@ -53,6 +46,16 @@ import org.locationtech.jts.util.Assert;
  */
 public class ConcaveHullExcavator {
 
+  /**
+   * Orders hull nodes by decreasing length of the segment they start,
+   * so that the longest segments are dug first.
+   * Ties are broken by location, so that the order does not depend on insertion order.
+   */
+  private static final Comparator<Node> LONGEST_FIRST = (n1, n2) -> {
+    int comp = Double.compare(n2.lengthMeasure, n1.lengthMeasure);
+    return comp != 0 ? comp : n1.point.compareTo(n2.point);
+  };
+
   private final GeometryFactory factory;
   private final LineIntersector lineIntersector = new RobustLineIntersector();
 
@@ -151,17 +154,23 @@ public class ConcaveHullExcavator {
     Coordinate[] convexHullCoordinates = convexHull.getCoordinates();
 
     // create search index for non-hull points
-    STRtree tree = createCandidatesTree(this.coordinates, convexHullCoordinates);
+    PackedPointIndex candidates = createCandidateIndex(this.coordinates, convexHullCoordinates);
 
     // create a double linked list off of the convex hull start solution.
-    List<Node> queue = createHullRing(convexHullCoordinates);
-    Node first = queue.get(0);
+    List<Node> hullNodes = createHullRing(convexHullCoordinates);
+    Node first = hullNodes.get(0);
 
     // create an index for the the segments of the (result) concave hull ring
-    SpatialIndex segTree = createSegmentTree(queue);
+    SegmentGrid segments = createSegmentGrid(hullNodes, convexHull.getEnvelopeInternal(), this.coordinates.length);
+
+    // queue the hull segments, longest first
+    PriorityQueue<Node> queue = new PriorityQueue<>(hullNodes.size(), LONGEST_FIRST);
+    for (int i = 0; i < hullNodes.size(); i++) {
+      enqueue(queue, hullNodes.get(i));
+    }
 
     // dig the concave holes
-    digConcaveHoles(tree, segTree, queue);
+    digConcaveHoles(candidates, segments, queue);
 
     // create the result geometry
     CoordinateSequence arr = toConcaveRingSequence(first);
@@ -190,13 +199,13 @@ public class ConcaveHullExcavator {
   }
 
   /**
-   * Iterates over all segments in {@code nodesQueue} and attempts to dig holes for each
+   * Iterates over all segments in {@code nodesQueue}, longest first, and attempts to dig holes for each
    *
-   * @param candidatesTree an index containing all input points that are not part of the concave hull
-   * @param segmentIndex   an index containing all segments of the concave hull
-   * @param nodesQueue     a list of nodes that need to be investigated
+   * @param candidates   an index containing all input points that are not part of the concave hull
+   * @param segmentIndex an index containing all segments of the concave hull
+   * @param nodesQueue   a queue of nodes that need to be investigated, longest segment first
    */
-  private void digConcaveHoles(STRtree candidatesTree, SpatialIndex segmentIndex, List<Node> nodesQueue) {
+  private void digConcaveHoles(PackedPointIndex candidates, SegmentGrid segmentIndex, PriorityQueue<Node> nodesQueue) {
 
     // compute thresholds for concavity and segment length
     double squaredConcavity = this.concavity * this.concavity;
@@ -204,40 +213,50 @@ public class ConcaveHullExcavator {
 
     // Examine all hull nodes and their segments
     while(nodesQueue.size() > 0) {
-      Node node = nodesQueue.remove(0);
+      Node node = nodesQueue.poll();
       Coordinate a = node.point;
       Coordinate b = node.nextNode.point;
 
-      // skip the segment if it is already short enough
-      double lengthMeasure = DistanceSquared.pointToPoint(a, b);
-      if (lengthMeasure < squaredLengthThreshold) continue;
+      // stop when the segment is already short enough, since all remaining ones are no longer
+      double lengthMeasure = node.lengthMeasure;
+      if (lengthMeasure < squaredLengthThreshold) break;
 
       double maxLengthMeasure = lengthMeasure / squaredConcavity;
-      Coordinate p = findCandidate(candidatesTree,
+      int candidate = findCandidate(candidates,
         node.prevNode.point, a, b, node.nextNode.nextNode.point,
         maxLengthMeasure, segmentIndex);
 
       // if we found a connection and it satisfies our concavity measure
-      if (p != null) {
+      if (candidate >= 0) {
+        Coordinate p = candidates.getPoint(candidate);
         double distanceMeasure = Math.min(DistanceSquared.pointToPoint(p, a), DistanceSquared.pointToPoint(p, b));
         if (distanceMeasure <= maxLengthMeasure) {
           // connect the edge endpoints through this point and add 2 new edges to the queue
-          nodesQueue.add(node);
-          nodesQueue.add(createNode(p, node));
+          Node pNode = createNode(p, node);
+          enqueue(nodesQueue, node);
+          enqueue(nodesQueue, pNode);
 
           // update candidate and segment indexes
-          candidatesTree.remove(new Envelope(p), p);
-          segmentIndex.remove(node.envelope, node);
-
-          updateNodeEnvelope(node);
-          segmentIndex.insert(node.envelope, node);
-          updateNodeEnvelope(node.nextNode);
-          segmentIndex.insert(node.nextNode.envelope, node.nextNode);
+          candidates.consume(candidate);
+          segmentIndex.remove(node, a, b);
+          segmentIndex.insert(node, a, p);
+          segmentIndex.insert(pNode, p, b);
         }
       }
     }
   }
 
+  /**
+   * Adds a node to the work queue, recording the length of the segment it starts
+   *
+   * @param queue the work queue
+   * @param node the node
+   */
+  private static void enqueue(PriorityQueue<Node> queue, Node node) {
+    node.lengthMeasure = DistanceSquared.pointToPoint(node.point, node.nextNode.point);
+    queue.add(node);
+  }
+
   /**
    * Create a list of double-linked nodes off of the given coordinates.
    * It is assumed that the <b>input is closed</b>.
@@ -266,30 +285,31 @@ public class ConcaveHullExcavator {
    *
    * @param coordinates       am array of coordinates
    * @param convexHullPoints  an array of the convex hull coordinates that make up the start solution
-   * @return A STRtree index of points
+   * @return A packed index of points
    */
-  private static STRtree createCandidatesTree(Coordinate[] coordinates, Coordinate[] convexHullPoints) {
+  private static PackedPointIndex createCandidateIndex(Coordinate[] coordinates, Coordinate[] convexHullPoints) {
     Set<Coordinate> convexHullPointSet = getConvexHullPointSet(convexHullPoints);
-    STRtree tree = new STRtree();
+    List<Coordinate> candidates = new ArrayList<>(coordinates.length);
     for (int i = 0; i < coordinates.length; i++) {
       if (!convexHullPointSet.contains(coordinates[i]))
-        tree.insert(new Envelope(coordinates[i]), coordinates[i]);
+        candidates.add(coordinates[i]);
     }
-    return tree;
+    return new PackedPointIndex(candidates.toArray(new Coordinate[0]));
   }
 
   /**
    * Utility function to create the initial segment index.
    *
-   * @param queue A list of segment nodes
-   * @return a quadtree index of segment nodes
+   * @param hullNodes A list of segment nodes
+   * @param extent the extent of all segments
+   * @param numPoints the number of input points, which bounds the number of segments
+   * @return a grid index of segment nodes
    */
-  private static SpatialIndex createSegmentTree(List<Node> queue) {
-    Quadtree res = new Quadtree();
-    for (int i = 0; i < queue.size(); i++) {
-      Node item = queue.get(i);
-      updateNodeEnvelope(item);
-      res.insert(item.envelope, item);
+  private static SegmentGrid createSegmentGrid(List<Node> hullNodes, Envelope extent, int numPoints) {
+    SegmentGrid res = new SegmentGrid(extent, numPoints);
+    for (int i = 0; i < hullNodes.size(); i++) {
+      Node item = hullNodes.get(i);
+      res.insert(item, item.point, item.nextNode.point);
     }
     return res;
   }
@@ -318,113 +338,38 @@ public class ConcaveHullExcavator {
    *   properly intersect with {@code a}->{@code b} nor {@code c}{@code d}</li>
    * </ul>
    *
-   * @param candidatesTree a spatial index of candidate points
+   * @param candidates a spatial index of candidate points
    * @param a the starting point of the previous segment
    * @param b the starting point of the investigated segment
    * @param c the end-point of the investigated segment
    * @param d the end-point of the next segment
    * @param maxDistanceMeasure a threshold value for the distance
-   * @param segmentTree a spatial index of hull edges
+   * @param segmentIndex a spatial index of hull edges
    *
-   * @return a candidate
+   * @return the index of a candidate, or -1
    */
-  private Coordinate findCandidate(STRtree candidatesTree,
-                                   Coordinate a, Coordinate b, Coordinate c, Coordinate d,
-                                   double maxDistanceMeasure, SpatialIndex segmentTree) {
-
-    PriorityQueue<PqItemDistance> queue = new PriorityQueue<>();
-    AbstractNode node = candidatesTree.getRoot();
-
-    // search the candidate index with a depth-first search using a priority queue
-    // in the order of distance to the segment b->c
-    while (node != null) {
-      List children = node.getChildBoundables();
-      for (int i = 0; i < children.size(); i++) {
-        Boundable child = (Boundable)children.get(i);
-
-        double distanceMeasure = isLeaf(child)
-          ? DistanceSquared.pointToSegment((Coordinate) ((ItemBoundable)child).getItem(), b, c)
-          : DistanceSquared.segmentToEnvelope(b, c, (Envelope)child.getBounds());
-
-        // skip the node if it's too far away
-        if (distanceMeasure > maxDistanceMeasure) continue;
-
-        // add node to queue
-        queue.add(new PqItemDistance(child, distanceMeasure));
-      }
-
-      while (queue.size() > 0 && isLeaf((queue.peek()).item)) {
-        PqItemDistance item = queue.poll();
-        Coordinate p = (Coordinate) ((ItemBoundable)item.item).getItem();
-
-        // skip all points that are as close to adjacent segments a->b and c->d,
-        // and points that would introduce self-intersections when connected
-        double distancePAB = DistanceSquared.pointToSegment(p, a, b);
-        double distancePCD = DistanceSquared.pointToSegment(p, c, d);
-        if (item.distance < distancePAB && item.distance < distancePCD &&
-          noProperIntersections(b, p, segmentTree) &&
-          noProperIntersections(c, p, segmentTree)) {
-          return p;
-        }
+  private int findCandidate(PackedPointIndex candidates,
+                            Coordinate a, Coordinate b, Coordinate c, Coordinate d,
+                            double maxDistanceMeasure, SegmentGrid segmentIndex) {
+
+    // search the candidate index nearest first, in the order of distance to the segment b->c
+    candidates.startSearch(b, c, maxDistanceMeasure);
+    for (int i = candidates.next(); i >= 0; i = candidates.next()) {
+      Coordinate p = candidates.getPoint(i);
+      double distance = candidates.getDistance();
+
+      // skip all points that are as close to adjacent segments a->b and c->d,
+      // and points that would introduce self-intersections when connected
+      double distancePAB = DistanceSquared.pointToSegment(p, a, b);
+      double distancePCD = DistanceSquared.pointToSegment(p, c, d);
+      if (distance < distancePAB && distance < distancePCD &&
+        segmentIndex.noProperIntersections(b, p, lineIntersector) &&
+        segmentIndex.noProperIntersections(c, p, lineIntersector)) {
+        return i;
       }
-
-      PqItemDistance pqNode = queue.poll();
-      if (pqNode != null)
-        node = (AbstractNode) pqNode.item;
-      else
-        node = null;
-    }
-
-    return null;
-  }
-
-  /**
-   * Tests if the segment {@code a}-> {code b} does not have any proper intersections with
-   * any other hull segments
-   * @param a the starting point of the segment
-   * @param b the end-point of the segment
-   * @param segmentIndex a spatial index of hull segments
-
-   * @return {@code true} if there are no proper intersections
-   *
-   * @see LineIntersector#hasIntersection()
-   * @see LineIntersector#isProper()
-   */
-  private boolean noProperIntersections(Coordinate a, Coordinate b, SpatialIndex segmentIndex) {
-
-    Envelope searchEnv = new Envelope(a);
-    searchEnv.expandToInclude(b);
-    List edges = segmentIndex.query(searchEnv);
-
-    for (int i = 0; i < edges.size(); i++) {
-      Node n = (Node)edges.get(i);
-      lineIntersector.computeIntersection(n.point, n.nextNode.point, a, b);
-      if (lineIntersector.hasIntersection() && lineIntersector.isProper()) return false;
     }
-    return true;
-  }
 
-  /**
-   * Predicate function to see if a node is a leaf or not.
-   * @param node a node
-   * @return {@code true} if the node is a leaf.
-   */
-  private static boolean isLeaf(Boundable node) {
-    if (node instanceof ItemBoundable)
-      return true;
-    if (!(node instanceof AbstractNode))
-      Assert.shouldNeverReachHere();
-    return false;
-  }
-
-  /**
-   * Updates the bounds of a node
-   * @param node the node
-   */
-  private static void updateNodeEnvelope(Node node) {
-    node.envelope.init();
-    node.envelope.expandToInclude(node.point);
-    node.envelope.expandToInclude(node.nextNode.point);
+    return -1;
   }
 
   /**
@@ -460,36 +405,172 @@ public class ConcaveHullExcavator {
     /** the previous node */
     Node prevNode = null;
 
-    /** the bounds of the segment from {@linkplain #point} to {@linkplain #nextNode#point} */
-    final Envelope envelope;
-
     /** the coordinate of this node */
     final Coordinate point;
 
+    /** the squared length of the segment from {@linkplain #point} to {@code nextNode.point}, when queued */
+    double lengthMeasure;
+
     /** the next node in the ring */
     Node nextNode = null;
 
+    /** the stamp of the last segment index query which tested this node */
+    int queryStamp;
+
     Node(Coordinate point) {
       this.point = point;
-      envelope = new Envelope();
     }
   }
 
   /**
-   * An item
+   * A uniform grid index of hull segments, supporting cheap removal and insertion.
+   * <p>
+   * Each segment is registered in every cell it passes through,
+   * so intersecting segments always share a cell, and long segments do not
+   * occupy the cells of their whole bounding box.
    */
-  private class PqItemDistance implements Comparable<PqItemDistance>
-  {
-    private final Boundable item;
-    private final double distance;
+  private static final class SegmentGrid {
+
+    private static final int MAX_CELLS = 1 << 20;
+
+    private static final int INSERT = 0;
+    private static final int REMOVE = 1;
+    private static final int QUERY = 2;
+
+    private final double minX;
+    private final double minY;
+    private final double cellSize;
+    private final double eps;
+    private final int cellsX;
+    private final int cellsY;
+    private final Node[][] cells;
+    private final int[] cellCounts;
+
+    /** stamp of the current query, to test each segment only once */
+    private int queryStamp;
+
+    private LineIntersector queryIntersector;
+    private Coordinate queryA;
+    private Coordinate queryB;
+
+    SegmentGrid(Envelope extent, int numPoints) {
+      double width = extent.getWidth();
+      double height = extent.getHeight();
+      int targetCells = Math.max(1, Math.min(numPoints / 4, MAX_CELLS));
+      double size = Math.sqrt(width * height / targetCells);
+      size = Math.max(size, Math.max(width, height) / 1024);
+      if (!(size > 0)) size = 1;
+      minX = extent.getMinX();
+      minY = extent.getMinY();
+      cellSize = size;
+      eps = size * 1e-9;
+      cellsX = (int) Math.min(width / size, 1024) + 1;
+      cellsY = (int) Math.min(height / size, 1024) + 1;
+      cells = new Node[cellsX * cellsY][];
+      cellCounts = new int[cellsX * cellsY];
+    }
 
-    PqItemDistance(Boundable item, double distance) {
-      this.item = item;
-      this.distance = distance;
+    void insert(Node node, Coordinate a, Coordinate b) {
+      visitCells(a, b, INSERT, node);
     }
 
-    public int compareTo(PqItemDistance other) {
-      return Double.compare(this.distance, other.distance);
+    void remove(Node node, Coordinate a, Coordinate b) {
+      visitCells(a, b, REMOVE, node);
+    }
+
+    /**
+     * Tests if the segment {@code a}-> {code b} does not have any proper intersections with
+     * any other hull segments
+     * @param a the starting point of the segment
+     * @param b the end-point of the segment
+     * @param lineIntersector the intersector to use
+     *
+     * @return {@code true} if there are no proper intersections
+     *
+     * @see LineIntersector#hasIntersection()
+     * @see LineIntersector#isProper()
+     */
+    boolean noProperIntersections(Coordinate a, Coordinate b, LineIntersector lineIntersector) {
+      queryStamp++;
+      queryIntersector = lineIntersector;
+      queryA = a;
+      queryB = b;
+      return visitCells(a, b, QUERY, null);
+    }
+
+    private int col(double x) {
+      return Math.max(0, Math.min(cellsX - 1, (int) Math.floor((x - minX) / cellSize)));
+    }
+
+    private int row(double y) {
+      return Math.max(0, Math.min(cellsY - 1, (int) Math.floor((y - minY) / cellSize)));
+    }
+
+    /**
+     * Visits the cells the segment {@code a}-> {code b} passes through, row by row.
+     *
+     * @return {@code false} if a query found a proper intersection
+     */
+    private boolean visitCells(Coordinate a, Coordinate b, int mode, Node node) {
+      double y0 = Math.min(a.y, b.y);
+      double y1 = Math.max(a.y, b.y);
+      int r0 = row(y0 - eps);
+      int r1 = row(y1 + eps);
+      for (int r = r0; r <= r1; r++) {
+        // the part of the segment within this row
+        double rowMinY = Math.max(y0, minY + r * cellSize);
+        double rowMaxY = Math.min(y1, minY + (r + 1) * cellSize);
+        double xa, xb;
+        if (a.y == b.y || r0 == r1) {
+          xa = a.x;
+          xb = b.x;
+        } else {
+          double slope = (b.x - a.x) / (b.y - a.y);
+          xa = a.x + (rowMinY - a.y) * slope;
+          xb = a.x + (rowMaxY - a.y) * slope;
+        }
+        int c0 = col(Math.min(xa, xb) - eps);
+        int c1 = col(Math.max(xa, xb) + eps);
+        for (int c = c0; c <= c1; c++) {
+          if (!visitCell(r * cellsX + c, mode, node)) return false;
+        }
+      }
+      return true;
+    }
+
+    private boolean visitCell(int cell, int mode, Node node) {
+      Node[] items = cells[cell];
+      int count = cellCounts[cell];
+      switch (mode) {
+        case INSERT:
+          if (items == null) {
+            items = cells[cell] = new Node[4];
+          } else if (count == items.length) {
+            items = cells[cell] = Arrays.copyOf(items, 2 * count);
+          }
+          items[count] = node;
+          cellCounts[cell] = count + 1;
+          return true;
+        case REMOVE:
+          for (int i = 0; i < count; i++) {
+            if (items[i] == node) {
+              items[i] = items[count - 1];
+              items[count - 1] = null;
+              cellCounts[cell] = count - 1;
+              break;
+            }
+          }
+          return true;
+        default:
+          for (int i = 0; i < count; i++) {
+            Node n = items[i];
+            if (n.queryStamp == queryStamp) continue;
+            n.queryStamp = queryStamp;
+            queryIntersector.computeIntersection(n.point, n.nextNode.point, queryA, queryB);
+            if (queryIntersector.hasIntersection() && queryIntersector.isProper()) return false;
+          }
+          return true;
+      }
     }
   }
-}
\ No newline at end of file
+}
@@ -62,19 +62,43 @@ public class DistanceSquared {
    * @return the squared distance from p to line segment AB
    */
   public static double pointToSegment(Coordinate p, Coordinate A, Coordinate B) {
+    return pointToSegment(p.x, p.y, A.x, A.y, B.x, B.y);
+  }
+
+  /**
+   * Computes the squared distance from a point {@code p} to a line segment |{@code A}{@code B}|
+   *
+   * Note: NON-ROBUST!
+   *
+   * @param px
+   *          the x-ordinate of the point
+   * @param py
+   *          the y-ordinate of the point
+   * @param ax
+   *          the x-ordinate of point A of the segment AB
+   * @param ay
+   *          the y-ordinate of point A of the segment AB
+   * @param bx
+   *          the x-ordinate of point B of the segment AB
+   * @param by
+   *          the y-ordinate of point B of the segment AB
+   *
+   * @return the squared distance from p to line segment AB
+   */
+  public static double pointToSegment(double px, double py, double ax, double ay, double bx, double by) {
 
-    double x = A.x;
-    double y = A.y;
-    double dx = B.x - x;
-    double dy = B.y - y;
+    double x = ax;
+    double y = ay;
+    double dx = bx - x;
+    double dy = by - y;
 
     if (dx != 0 || dy != 0) {
 
-      double t = ((p.x - x) * dx + (p.y - y) * dy) / (dx * dx + dy * dy);
+      double t = ((px - x) * dx + (py - y) * dy) / (dx * dx + dy * dy);
 
       if (t > 1) {
-        x = B.x;
-        y = B.y;
+        x = bx;
+        y = by;
 
       } else if (t > 0) {
         x += dx * t;
@@ -82,8 +106,8 @@ public class DistanceSquared {
       }
     }
 
-    dx = p.x - x;
-    dy = p.y - y;
+    dx = px - x;
+    dy = py - y;
 
     return dx * dx + dy * dy;
   }
@@ -240,15 +264,30 @@ public class DistanceSquared {
    * @return the distance between AB and the envelope.
    */
   public static double segmentToEnvelope(Coordinate A, Coordinate B, Envelope bounds) {
-    if (bounds.contains(A) || bounds.contains(B))
+    return segmentToEnvelope(A.x, A.y, B.x, B.y,
+      bounds.getMinX(), bounds.getMinY(), bounds.getMaxX(), bounds.getMaxY());
+  }
+
+  /**
+   * Computes the squared distance between the segment {@code A}{@code B} and the
+   * bounds {@code minX}, {@code minY}, {@code maxX}, {@code maxY}
+   *
+   * Note: NON-ROBUST!
+   *
+   * @return the distance between AB and the bounds.
+   */
+  public static double segmentToEnvelope(double ax, double ay, double bx, double by,
+                                         double minX, double minY, double maxX, double maxY) {
+    if ((ax >= minX && ax <= maxX && ay >= minY && ay <= maxY) ||
+      (bx >= minX && bx <= maxX && by >= minY && by <= maxY))
       return 0;
-    double d1 = segmentToSegment(A.x, A.y, B.x, B.y, bounds.getMinX(), bounds.getMinY(), bounds.getMaxX(), bounds.getMinY());
+    double d1 = segmentToSegment(ax, ay, bx, by, minX, minY, maxX, minY);
     if (d1 == 0) return 0;
-    double d2 = segmentToSegment(A.x, A.y, B.x, B.y, bounds.getMinX(), bounds.getMinY(), bounds.getMinX(), bounds.getMaxY());
+    double d2 = segmentToSegment(ax, ay, bx, by, minX, minY, minX, maxY);
     if (d2 == 0) return 0;
-    double d3 = segmentToSegment(A.x, A.y, B.x, B.y, bounds.getMaxX(), bounds.getMinY(), bounds.getMaxX(), bounds.getMaxY());
+    double d3 = segmentToSegment(ax, ay, bx, by, maxX, minY, maxX, maxY);
     if (d3 == 0) return 0;
-    double d4 = segmentToSegment(A.x, A.y, B.x, B.y, bounds.getMinX(), bounds.getMaxY(), bounds.getMaxX(), bounds.getMaxY());
+    double d4 = segmentToSegment(ax, ay, bx, by, minX, maxY, maxX, maxY);
     if (d4 == 0) return 0;
 
     return Math.min(Math.min(d1, d2), Math.min(d3, d4));
@@ -0,0 +1,305 @@
+/*
+ * Copyright (c) 2019 Felix Obermaier.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * and Eclipse Distribution License v. 1.0 which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ * and the Eclipse Distribution License is available at
+ *
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ */
+package fobermaier;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+import org.locationtech.jts.geom.Coordinate;
+
+/**
+ * A static packed R-tree of points, supporting removal of points
+ * and nearest-first search for the points near a line segment.
+ * <p>
+ * The tree is built once. Removed ("consumed") points are recorded in a bitset,
+ * and each node keeps a count of its remaining points, so that exhausted subtrees are skipped
+ * without restructuring the tree.
+ * <p>
+ * Search state is kept in the index and reused, so only one search can be active at a time.
+ */
+class PackedPointIndex {
+
+  private static final int NODE_CAPACITY = 16;
+
+  /** the points, in tree order */
+  private final Coordinate[] points;
+
+  /** node bounds, minX, minY, maxX, maxY per node; level 0 holds the leaves */
+  private final double[] bounds;
+  private final int[] levelOffsets;
+  private final int[] levelSizes;
+
+  /** the number of unconsumed points below each node */
+  private final int[] remaining;
+
+  private final BitSet consumed;
+
+  /** search heap of (squared distance, item); items are node numbers, or -1 - point index */
+  private double[] heapDistance = new double[64];
+  private int[] heapItem = new int[64];
+  private int heapSize;
+
+  private double ax, ay, bx, by;
+  private double maxDistanceMeasure;
+  private double lastDistance;
+
+  /**
+   * Creates an index of points
+   *
+   * @param points the points; the array is reordered
+   */
+  PackedPointIndex(Coordinate[] points) {
+    this.points = points;
+    int n = points.length;
+    sortPoints(points);
+
+    int numLevels = 1;
+    for (int size = nodeCount(n); size > 1; size = nodeCount(size)) {
+      numLevels++;
+    }
+    levelOffsets = new int[numLevels];
+    levelSizes = new int[numLevels];
+    int total = 0;
+    int size = n;
+    for (int level = 0; level < numLevels; level++) {
+      size = nodeCount(size);
+      levelOffsets[level] = total;
+      levelSizes[level] = size;
+      total += size;
+    }
+    bounds = new double[4 * total];
+    remaining = new int[total];
+    consumed = new BitSet(n);
+    computeBounds();
+  }
+
+  private static int nodeCount(int n) {
+    return Math.max(1, (n + NODE_CAPACITY - 1) / NODE_CAPACITY);
+  }
+
+  /**
+   * Orders the points along a Z-order curve, so that tree nodes are spatially compact.
+   */
+  private static void sortPoints(Coordinate[] points) {
+    int n = points.length;
+    double minX = Double.POSITIVE_INFINITY, minY = Double.POSITIVE_INFINITY;
+    double maxX = Double.NEGATIVE_INFINITY, maxY = Double.NEGATIVE_INFINITY;
+    for (Coordinate p : points) {
+      minX = Math.min(minX, p.x);
+      maxX = Math.max(maxX, p.x);
+      minY = Math.min(minY, p.y);
+      maxY = Math.max(maxY, p.y);
+    }
+    double size = Math.max(maxX - minX, maxY - minY);
+    double scale = size > 0 ? 32767 / size : 0;
+
+    long[] keys = new long[n];
+    for (int i = 0; i < n; i++) {
+      long z = interleave((int) ((points[i].x - minX) * scale))
+        | (interleave((int) ((points[i].y - minY) * scale)) << 1);
+      keys[i] = (z << 32) | i;
+    }
+    Arrays.sort(keys);
+
+    Coordinate[] copy = points.clone();
+    for (int i = 0; i < n; i++) {
+      points[i] = copy[(int) keys[i]];
+    }
+  }
+
+  /** spreads the low 15 bits of v to the even bits of the result */
+  private static long interleave(int v) {
+    long x = v & 0x7FFF;
+    x = (x | (x << 8)) & 0x00FF00FFL;
+    x = (x | (x << 4)) & 0x0F0F0F0FL;
+    x = (x | (x << 2)) & 0x33333333L;
+    x = (x | (x << 1)) & 0x55555555L;
+    return x;
+  }
+
+  private void computeBounds() {
+    for (int node = 0; node < levelSizes[0]; node++) {
+      int b = 4 * node;
+      initBounds(b);
+      int end = Math.min((node + 1) * NODE_CAPACITY, points.length);
+      for (int i = node * NODE_CAPACITY; i < end; i++) {
+        expandBounds(b, points[i].x, points[i].y);
+      }
+      remaining[node] = Math.max(end - node * NODE_CAPACITY, 0);
+    }
+    for (int level = 1; level < levelSizes.length; level++) {
+      int childOffset = levelOffsets[level - 1];
+      int numChildren = levelSizes[level - 1];
+      for (int node = 0; node < levelSizes[level]; node++) {
+        int parent = levelOffsets[level] + node;
+        int b = 4 * parent;
+        initBounds(b);
+        int end = Math.min((node + 1) * NODE_CAPACITY, numChildren);
+        for (int child = node * NODE_CAPACITY; child < end; child++) {
+          int cb = 4 * (childOffset + child);
+          expandBounds(b, bounds[cb], bounds[cb + 1]);
+          expandBounds(b, bounds[cb + 2], bounds[cb + 3]);
+          remaining[parent] += remaining[childOffset + child];
+        }
+      }
+    }
+  }
+
+  private void initBounds(int b) {
+    bounds[b] = Double.POSITIVE_INFINITY;
+    bounds[b + 1] = Double.POSITIVE_INFINITY;
+    bounds[b + 2] = Double.NEGATIVE_INFINITY;
+    bounds[b + 3] = Double.NEGATIVE_INFINITY;
+  }
+
+  private void expandBounds(int b, double x, double y) {
+    if (x < bounds[b]) bounds[b] = x;
+    if (y < bounds[b + 1]) bounds[b + 1] = y;
+    if (x > bounds[b + 2]) bounds[b + 2] = x;
+    if (y > bounds[b + 3]) bounds[b + 3] = y;
+  }
+
+  /**
+   * Gets a point
+   *
+   * @param index the index of the point, as returned by {@link #next()}
+   */
+  Coordinate getPoint(int index) {
+    return points[index];
+  }
+
+  /**
+   * Removes a point from the index, so that it is not found by later searches.
+   *
+   * @param index the index of the point
+   */
+  void consume(int index) {
+    if (consumed.get(index)) return;
+    consumed.set(index);
+    int node = index / NODE_CAPACITY;
+    for (int level = 0; level < levelSizes.length; level++) {
+      remaining[levelOffsets[level] + node]--;
+      node /= NODE_CAPACITY;
+    }
+  }
+
+  /**
+   * Starts a search for the unconsumed points near the segment {@code a}->{@code b}.
+   *
+   * @param a the starting point of the segment
+   * @param b the end-point of the segment
+   * @param maxDistanceMeasure the maximum squared distance of points to find
+   */
+  void startSearch(Coordinate a, Coordinate b, double maxDistanceMeasure) {
+    ax = a.x;
+    ay = a.y;
+    bx = b.x;
+    by = b.y;
+    this.maxDistanceMeasure = maxDistanceMeasure;
+    heapSize = 0;
+    int root = levelOffsets[levelSizes.length - 1];
+    if (remaining[root] > 0) {
+      push(nodeDistance(root), root);
+    }
+  }
+
+  /**
+   * Finds the next nearest point of the current search.
+   *
+   * @return the index of the point, or -1 if there are no more points within the search distance
+   */
+  int next() {
+    while (heapSize > 0) {
+      double distance = heapDistance[0];
+      int item = pop();
+      if (item < 0) {
+        lastDistance = distance;
+        return -1 - item;
+      }
+      expand(item);
+    }
+    return -1;
+  }
+
+  /**
+   * Gets the squared distance to the search segment of the point last returned by {@link #next()}.
+   */
+  double getDistance() {
+    return lastDistance;
+  }
+
+  private void expand(int node) {
+    int level = 0;
+    while (level + 1 < levelOffsets.length && node >= levelOffsets[level + 1]) {
+      level++;
+    }
+    int start = (node - levelOffsets[level]) * NODE_CAPACITY;
+    if (level == 0) {
+      int end = Math.min(start + NODE_CAPACITY, points.length);
+      for (int i = start; i < end; i++) {
+        if (consumed.get(i)) continue;
+        double distance = DistanceSquared.pointToSegment(points[i].x, points[i].y, ax, ay, bx, by);
+        if (distance <= maxDistanceMeasure) push(distance, -1 - i);
+      }
+      return;
+    }
+    int childOffset = levelOffsets[level - 1];
+    int end = Math.min(start + NODE_CAPACITY, levelSizes[level - 1]);
+    for (int i = start; i < end; i++) {
+      int child = childOffset + i;
+      if (remaining[child] == 0) continue;
+      double distance = nodeDistance(child);
+      if (distance <= maxDistanceMeasure) push(distance, child);
+    }
+  }
+
+  private double nodeDistance(int node) {
+    int b = 4 * node;
+    return DistanceSquared.segmentToEnvelope(ax, ay, bx, by,
+      bounds[b], bounds[b + 1], bounds[b + 2], bounds[b + 3]);
+  }
+
+  private void push(double distance, int item) {
+    if (heapSize == heapItem.length) {
+      heapDistance = Arrays.copyOf(heapDistance, 2 * heapSize);
+      heapItem = Arrays.copyOf(heapItem, 2 * heapSize);
+    }
+    int i = heapSize++;
+    while (i > 0) {
+      int parent = (i - 1) >>> 1;
+      if (heapDistance[parent] <= distance) break;
+      heapDistance[i] = heapDistance[parent];
+      heapItem[i] = heapItem[parent];
+      i = parent;
+    }
+    heapDistance[i] = distance;
+    heapItem[i] = item;
+  }
+
+  private int pop() {
+    int top = heapItem[0];
+    int last = --heapSize;
+    double distance = heapDistance[last];
+    int item = heapItem[last];
+    int i = 0;
+    for (int child = 1; child < heapSize; child = 2 * i + 1) {
+      if (child + 1 < heapSize && heapDistance[child + 1] < heapDistance[child]) child++;
+      if (distance <= heapDistance[child]) break;
+      heapDistance[i] = heapDistance[child];
+      heapItem[i] = heapItem[child];
+      i = child;
+    }
+    heapDistance[i] = distance;
+    heapItem[i] = item;
+    return top;
+  }
+}
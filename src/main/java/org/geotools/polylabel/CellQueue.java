@@ -0,0 +1,180 @@
+/*
+ *    GeoTools - The Open Source Java GIS Toolkit
+ *    http://geotools.org
+ *
+ *    (C) 2016, Open Source Geospatial Foundation (OSGeo)
+ *
+ *    This library is free software; you can redistribute it and/or
+ *    modify it under the terms of the GNU Lesser General Public
+ *    License as published by the Free Software Foundation;
+ *    version 2.1 of the License.
+ *
+ *    This library is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *    Lesser General Public License for more details.
+ *
+ */
+package org.geotools.polylabel;
+
+import java.util.Arrays;
+
+/**
+ * A priority queue of quadtree cells for the "Pole of inaccessibility" search,
+ * in order of their potential (the maximum distance to the polygon within the cell).
+ *
+ * <p>Cells are held in a binary max-heap of parallel primitive arrays rather than as objects, so
+ * that a search allocates nothing once the arrays have grown to the size it needs. A queue can be
+ * cleared and reused for further searches.
+ *
+ * <p>The cell most recently taken by {@link #remove()} is available from the <code>getX()</code>,
+ * <code>getY()</code>, <code>getH()</code>, <code>getD()</code> and <code>getMax()</code>
+ * accessors until the next call to <code>remove()</code>.
+ */
+public class CellQueue {
+
+    private static final double SQRT2 = 1.4142135623730951;
+
+    // heap entries start at index 1; index 0 holds the last removed cell
+    private double[] x = new double[64];
+
+    private double[] y = new double[64];
+
+    private double[] h = new double[64];
+
+    private double[] d = new double[64];
+
+    private double[] max = new double[64];
+
+    private int size;
+
+    public void clear() {
+        size = 0;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Adds a cell.
+     *
+     * @param cx the cell center x
+     * @param cy the cell center y
+     * @param ch half the cell size
+     * @param cd the signed distance from the cell center to the polygon
+     */
+    public void add(double cx, double cy, double ch, double cd) {
+        add(cx, cy, ch, cd, cd + ch * SQRT2);
+    }
+
+    /**
+     * Adds a cell with a given potential, for searches whose objective is not the Euclidean
+     * distance.
+     *
+     * @param cx the cell center x
+     * @param cy the cell center y
+     * @param ch half the cell size
+     * @param cd the value of the objective at the cell center
+     * @param cmax the maximum value of the objective within the cell
+     */
+    public void add(double cx, double cy, double ch, double cd, double cmax) {
+        if (size + 1 == max.length) {
+            grow();
+        }
+        int i = ++size;
+        while (i > 1) {
+            int parent = i >>> 1;
+            if (max[parent] >= cmax) break;
+            move(parent, i);
+            i = parent;
+        }
+        set(i, cx, cy, ch, cd, cmax);
+    }
+
+    /**
+     * Removes the cell with the greatest potential, making it the current cell.
+     *
+     * @throws IllegalStateException if the queue is empty
+     */
+    public void remove() {
+        if (size == 0) {
+            throw new IllegalStateException("Cell queue is empty");
+        }
+        move(1, 0);
+        int last = size--;
+        if (size == 0) return;
+
+        // sift the last entry down from the root
+        double lmax = max[last];
+        int i = 1;
+        for (int child = 2; child <= size; child = 2 * i) {
+            if (child < size && max[child + 1] > max[child]) child++;
+            if (lmax >= max[child]) break;
+            move(child, i);
+            i = child;
+        }
+        move(last, i);
+    }
+
+    /**
+     * Gets the potential of the cell with the greatest potential, without removing it.
+     *
+     * @throws IllegalStateException if the queue is empty
+     */
+    public double peekMax() {
+        if (size == 0) {
+            throw new IllegalStateException("Cell queue is empty");
+        }
+        return max[1];
+    }
+
+    public double getX() {
+        return x[0];
+    }
+
+    public double getY() {
+        return y[0];
+    }
+
+    public double getH() {
+        return h[0];
+    }
+
+    public double getD() {
+        return d[0];
+    }
+
+    public double getMax() {
+        return max[0];
+    }
+
+    private void set(int i, double cx, double cy, double ch, double cd, double cmax) {
+        x[i] = cx;
+        y[i] = cy;
+        h[i] = ch;
+        d[i] = cd;
+        max[i] = cmax;
+    }
+
+    private void move(int from, int to) {
+        x[to] = x[from];
+        y[to] = y[from];
+        h[to] = h[from];
+        d[to] = d[from];
+        max[to] = max[from];
+    }
+
+    private void grow() {
+        int capacity = 2 * max.length;
+        x = Arrays.copyOf(x, capacity);
+        y = Arrays.copyOf(y, capacity);
+        h = Arrays.copyOf(h, capacity);
+        d = Arrays.copyOf(d, capacity);
+        max = Arrays.copyOf(max, capacity);
+    }
+}
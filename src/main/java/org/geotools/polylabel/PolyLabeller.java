@@ -17,10 +17,11 @@
  */
 package org.geotools.polylabel;
 
-import java.util.PriorityQueue;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.CoordinateSequence;
 import org.locationtech.jts.geom.Envelope;
 import org.locationtech.jts.geom.Geometry;
 import org.locationtech.jts.geom.MultiPolygon;
@@ -31,19 +32,45 @@ import org.locationtech.jts.geom.Polygon;
 /**
  * Based on Vladimir Agafonkin's Algorithm https://www.mapbox.com/blog/polygon-center/
  * 
+ * <p>An instance is a labelling session for one polygon: the input checks (including the slow
+ * validity check), the envelope, the centroid and the ring coordinates are prepared once, and
+ * label points can then be computed repeatedly, e.g. at the tolerance of each zoom level.
+ * 
  * @author Ian Turton
  * @author Casper Brgesen
  */
 public class PolyLabeller {
 
+    /**
+     * Cell queues, reused per thread.
+     */
+    private static final ThreadLocal<CellQueue> CELL_QUEUE = ThreadLocal.withInitial(CellQueue::new);
+
     public static Geometry getPolylabel(Geometry polygon, double precision) {
+        return new PolyLabeller(polygon).getPoint(precision);
+    }
+
+    private final Geometry polygon;
+
+    private final Envelope env;
+
+    // ring vertices, x0, y0, x1, y1, ... per ring, including the closing point
+    private final double[][] rings;
+
+    private final double centroidX;
+
+    private final double centroidY;
+
+    private final double centroidD;
+
+    /**
+     * Prepares a polygon for labelling.
+     *
+     * @throws IllegalStateException if the geometry is not a Polygon or MultiPolygon, or is empty or invalid
+     */
+    public PolyLabeller(Geometry polygon) {
 
-        Geometry multiPolygon;
-        if (polygon instanceof Polygon) {
-            multiPolygon = polygon;
-        } else if (polygon instanceof MultiPolygon) {
-            multiPolygon = (MultiPolygon) polygon;
-        } else {
+        if (!(polygon instanceof Polygon) && !(polygon instanceof MultiPolygon)) {
             throw new IllegalStateException("Input polygon must be a Polygon or MultiPolygon");
         }
 
@@ -56,9 +83,47 @@ public class PolyLabeller {
             throw new IllegalStateException("Can not label invalid geometries");
         }
 
+        this.polygon = polygon;
+        env = polygon.getEnvelopeInternal();
+
+        int numRings = 0;
+        for (int k = 0; k < polygon.getNumGeometries(); k++) {
+            numRings += 1 + ((Polygon) polygon.getGeometryN(k)).getNumInteriorRing();
+        }
+        rings = new double[numRings][];
+        int r = 0;
+        for (int k = 0; k < polygon.getNumGeometries(); k++) {
+            Polygon poly = (Polygon) polygon.getGeometryN(k);
+            rings[r++] = toArray(poly.getExteriorRing().getCoordinateSequence());
+            for (int i = 0; i < poly.getNumInteriorRing(); i++) {
+                rings[r++] = toArray(poly.getInteriorRingN(i).getCoordinateSequence());
+            }
+        }
+
+        Point centroid = polygon.getCentroid();
+        centroidX = centroid.getX();
+        centroidY = centroid.getY();
+        centroidD = pointToPolygonDist(centroidX, centroidY);
+    }
+
+    private static double[] toArray(CoordinateSequence seq) {
+        double[] ring = new double[2 * seq.size()];
+        for (int i = 0; i < seq.size(); i++) {
+            ring[2 * i] = seq.getX(i);
+            ring[2 * i + 1] = seq.getY(i);
+        }
+        return ring;
+    }
+
+    /**
+     * Computes a label point.
+     *
+     * @param precision the tolerance distance for point placement
+     */
+    public Point getPoint(double precision) {
+
         // find the bounding box of the outer ring
         double minX, minY, maxX, maxY;
-        Envelope env = multiPolygon.getEnvelopeInternal();
         minX = env.getMinX();
         maxX = env.getMaxX();
         minY = env.getMinY();
@@ -70,29 +135,36 @@ public class PolyLabeller {
 
         // a priority queue of cells in order of their "potential" (max distance
         // to polygon)
-        PriorityQueue<Cell> cellQueue = new PriorityQueue<>();
+        CellQueue cellQueue = CELL_QUEUE.get();
+        cellQueue.clear();
 
         // cover polygon with initial cells
         for (double x = minX; x < maxX; x += cellSize) {
             for (double y = minY; y < maxY; y += cellSize) {
-                cellQueue.add(new Cell(x + h, y + h, h, multiPolygon));
+                addCell(cellQueue, x + h, y + h, h);
             }
         }
 
         // take centroid as the first best guess
-        Cell bestCell = getCentroidCell(multiPolygon);
+        double bestX = centroidX;
+        double bestY = centroidY;
+        double bestD = centroidD;
         int numProbes = cellQueue.size();
 
         while (!cellQueue.isEmpty()) {
             // pick the most promising cell from the queue
-            Cell cell = cellQueue.remove();
+            cellQueue.remove();
+            double cellX = cellQueue.getX();
+            double cellY = cellQueue.getY();
 
             // update the best cell if we found a better one
-            if (cell.getD() > bestCell.getD()) {
-                bestCell = cell;
+            if (cellQueue.getD() > bestD) {
+                bestX = cellX;
+                bestY = cellY;
+                bestD = cellQueue.getD();
                 /*
                 if (LOGGER.isLoggable(Level.FINER)) {
-                    LOGGER.finer("found best " + (Math.round(1e4 * cell.getD()) / 1e4) + " after "
+                    LOGGER.finer("found best " + (Math.round(1e4 * bestD) / 1e4) + " after "
                             + numProbes + " probes");
                 }
                 */
@@ -100,31 +172,80 @@ public class PolyLabeller {
 
             // do not drill down further if there's no chance of a better
             // solution
-            if (cell.getMax() - bestCell.getD() <= precision)
+            if (cellQueue.getMax() - bestD <= precision)
                 continue;
 
             // split the cell into four cells
-            h = cell.getH() / 2;
-            cellQueue.add(new Cell(cell.getX() - h, cell.getY() - h, h, multiPolygon));
-            cellQueue.add(new Cell(cell.getX() + h, cell.getY() - h, h, multiPolygon));
-            cellQueue.add(new Cell(cell.getX() - h, cell.getY() + h, h, multiPolygon));
-            cellQueue.add(new Cell(cell.getX() + h, cell.getY() + h, h, multiPolygon));
+            h = cellQueue.getH() / 2;
+            addCell(cellQueue, cellX - h, cellY - h, h);
+            addCell(cellQueue, cellX + h, cellY - h, h);
+            addCell(cellQueue, cellX - h, cellY + h, h);
+            addCell(cellQueue, cellX + h, cellY + h, h);
             numProbes += 4;
         }
 
         /*
         if (LOGGER.isLoggable(Level.FINER)) {
             LOGGER.finer("num probes: " + numProbes);
-            LOGGER.finer("best distance: " + bestCell.getD());
+            LOGGER.finer("best distance: " + bestD);
         }
         */
 
-        return bestCell.getPoint();
+        return polygon.getFactory().createPoint(new Coordinate(bestX, bestY));
+    }
+
+    private void addCell(CellQueue cellQueue, double x, double y, double h) {
+        cellQueue.add(x, y, h, pointToPolygonDist(x, y));
+    }
+
+    // signed distance from point to polygon outline (negative if point is
+    // outside)
+    private double pointToPolygonDist(double x, double y) {
+
+        boolean inside = false;
+        double minDistSq = Double.POSITIVE_INFINITY;
+
+        for (double[] ring : rings) {
+            for (int i = 0, len = ring.length, j = len - 2; i < len; j = i, i += 2) {
+                double ax = ring[i];
+                double ay = ring[i + 1];
+                double bx = ring[j];
+                double by = ring[j + 1];
+                if ((ay > y != by > y) && (x < (bx - ax) * (y - ay) / (by - ay) + ax))
+                    inside = !inside;
+                minDistSq = Math.min(minDistSq, getSegDistSq(x, y, ax, ay, bx, by));
+            }
+        }
+
+        // Points outside has a negative distance and thus will be weighted down later.
+        return (inside ? 1 : -1) * Math.sqrt(minDistSq);
     }
 
-    // get a cell centered on polygon centroid
-    private static Cell getCentroidCell(Geometry poly) {
-        Point p = poly.getCentroid();
-        return new Cell(p.getX(), p.getY(), 0, poly);
+    // get squared distance from a point to a segment
+    private static double getSegDistSq(double px, double py, double ax, double ay, double bx, double by) {
+
+        double x = ax;
+        double y = ay;
+        double dx = bx - x;
+        double dy = by - y;
+
+        if (dx != 0.0 || dy != 0.0) {
+
+            double t = ((px - x) * dx + (py - y) * dy) / (dx * dx + dy * dy);
+
+            if (t > 1) {
+                x = bx;
+                y = by;
+
+            } else if (t > 0) {
+                x += dx * t;
+                y += dy * t;
+            }
+        }
+
+        dx = px - x;
+        dy = py - y;
+
+        return dx * dx + dy * dy;
     }
 }
\ No newline at end of file
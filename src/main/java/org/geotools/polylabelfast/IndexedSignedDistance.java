@@ -0,0 +1,487 @@
+/*
+ *    GeoTools - The Open Source Java GIS Toolkit
+ *    http://geotools.org
+ *
+ *    (C) 2016, Open Source Geospatial Foundation (OSGeo)
+ *
+ *    This library is free software; you can redistribute it and/or
+ *    modify it under the terms of the GNU Lesser General Public
+ *    License as published by the Free Software Foundation;
+ *    version 2.1 of the License.
+ *
+ *    This library is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *    Lesser General Public License for more details.
+ *
+ */
+package org.geotools.polylabelfast;
+
+import java.util.Arrays;
+
+import org.locationtech.jts.algorithm.Area;
+import org.locationtech.jts.geom.CoordinateSequence;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.Polygon;
+
+/**
+ * Computes the signed distance from a point to the boundary of a polygonal geometry:
+ * positive inside, negative outside.
+ * <p>
+ * The segments of all rings are held in a packed R-tree built once per geometry,
+ * with rings oriented so that the interior lies to their left.
+ * A query is a single branch-and-bound search for the nearest segment,
+ * and the side of the point relative to that segment (or, at a vertex, to its two edges)
+ * determines inside/outside, so no separate point-in-polygon test is needed.
+ * Only when segments of different rings are exactly equally near and disagree
+ * is the side resolved by counting ray crossings.
+ * Distances can also be measured in a box metric (see {@link #boxDistance(double, double, double, double)}),
+ * for fitting rectangular labels.
+ * Queries take raw coordinates and do not allocate.
+ * <p>
+ * The index is immutable, but queries use scratch state,
+ * so an instance must not be queried from several threads at once.
+ */
+public class IndexedSignedDistance {
+
+  private static final int NODE_CAPACITY = 8;
+
+  // per segment: previous vertex, start, end, next vertex (x, y each), in tree order
+  private static final int SEG_SIZE = 8;
+
+  private final double[] segs;
+  private final int numSegs;
+
+  // node bounds, minX, minY, maxX, maxY per node; level 0 holds the leaves
+  private final double[] bounds;
+  private final int[] levelOffsets;
+  private final int[] levelSizes;
+
+  // depth-first traversal stack of (level, node) pairs
+  private final int[] stack;
+  private final double[] childDist = new double[NODE_CAPACITY];
+  private final int[] childIndex = new int[NODE_CAPACITY];
+
+  // scale factors of the box metric, or 0 for the Euclidean metric
+  private double boxScaleX;
+  private double boxScaleY;
+
+  // nearest distance so far, as a squared Euclidean distance or a box scale
+  private double bestDist;
+  private boolean inside;
+  private boolean ambiguous;
+
+  public IndexedSignedDistance(Geometry polygonal) {
+    int n = 0;
+    for (int i = 0; i < polygonal.getNumGeometries(); i++) {
+      Polygon poly = (Polygon) polygonal.getGeometryN(i);
+      n += ringSegmentCount(poly.getExteriorRing().getCoordinateSequence());
+      for (int j = 0; j < poly.getNumInteriorRing(); j++) {
+        n += ringSegmentCount(poly.getInteriorRingN(j).getCoordinateSequence());
+      }
+    }
+    double[] raw = new double[SEG_SIZE * n];
+    int count = 0;
+    for (int i = 0; i < polygonal.getNumGeometries(); i++) {
+      Polygon poly = (Polygon) polygonal.getGeometryN(i);
+      count = addRing(poly.getExteriorRing().getCoordinateSequence(), false, raw, count);
+      for (int j = 0; j < poly.getNumInteriorRing(); j++) {
+        count = addRing(poly.getInteriorRingN(j).getCoordinateSequence(), true, raw, count);
+      }
+    }
+    numSegs = count;
+    segs = sortSegments(raw, count);
+
+    int numLevels = 1;
+    for (int size = nodeCount(count); size > 1; size = nodeCount(size)) {
+      numLevels++;
+    }
+    levelOffsets = new int[numLevels];
+    levelSizes = new int[numLevels];
+    int total = 0;
+    int size = count;
+    for (int level = 0; level < numLevels; level++) {
+      size = nodeCount(size);
+      levelOffsets[level] = total;
+      levelSizes[level] = size;
+      total += size;
+    }
+    bounds = new double[4 * total];
+    computeBounds();
+    stack = new int[2 * (numLevels * (NODE_CAPACITY - 1) + 1)];
+  }
+
+  private static int nodeCount(int n) {
+    return Math.max(1, (n + NODE_CAPACITY - 1) / NODE_CAPACITY);
+  }
+
+  private static int ringSegmentCount(CoordinateSequence seq) {
+    return Math.max(seq.size() - 1, 0);
+  }
+
+  /**
+   * Adds the segments of a ring, skipping repeated points,
+   * oriented so that the polygon interior lies to the left.
+   *
+   * @return the new number of segments
+   */
+  private static int addRing(CoordinateSequence seq, boolean isHole, double[] raw, int count) {
+    int size = ringSegmentCount(seq);
+    double[] xs = new double[size];
+    double[] ys = new double[size];
+    int m = 0;
+    for (int i = 0; i < size; i++) {
+      double x = seq.getX(i);
+      double y = seq.getY(i);
+      if (m > 0 && x == xs[m - 1] && y == ys[m - 1]) {
+        continue;
+      }
+      xs[m] = x;
+      ys[m] = y;
+      m++;
+    }
+    while (m > 1 && xs[m - 1] == xs[0] && ys[m - 1] == ys[0]) {
+      m--;
+    }
+    if (m < 2) {
+      return count;
+    }
+    // JTS signed ring area is positive for clockwise rings
+    boolean reverse = (Area.ofRingSigned(seq) > 0) != isHole;
+    for (int k = 0; k < m; k++) {
+      int i = reverse ? m - 1 - k : k;
+      int step = reverse ? -1 : 1;
+      int prev = Math.floorMod(i - step, m);
+      int next = Math.floorMod(i + step, m);
+      int next2 = Math.floorMod(i + 2 * step, m);
+      int pos = SEG_SIZE * count++;
+      raw[pos] = xs[prev];
+      raw[pos + 1] = ys[prev];
+      raw[pos + 2] = xs[i];
+      raw[pos + 3] = ys[i];
+      raw[pos + 4] = xs[next];
+      raw[pos + 5] = ys[next];
+      raw[pos + 6] = xs[next2];
+      raw[pos + 7] = ys[next2];
+    }
+    return count;
+  }
+
+  /**
+   * Orders segments along a Z-order curve of their midpoints,
+   * so that consecutive segments (and hence tree nodes) are spatially compact.
+   */
+  private static double[] sortSegments(double[] raw, int n) {
+    double minX = Double.POSITIVE_INFINITY, minY = Double.POSITIVE_INFINITY;
+    double maxX = Double.NEGATIVE_INFINITY, maxY = Double.NEGATIVE_INFINITY;
+    for (int i = 0; i < n; i++) {
+      double x = raw[SEG_SIZE * i + 2];
+      double y = raw[SEG_SIZE * i + 3];
+      minX = Math.min(minX, x);
+      maxX = Math.max(maxX, x);
+      minY = Math.min(minY, y);
+      maxY = Math.max(maxY, y);
+    }
+    double size = Math.max(maxX - minX, maxY - minY);
+    double scale = size > 0 ? 32767 / size : 0;
+
+    long[] keys = new long[n];
+    for (int i = 0; i < n; i++) {
+      int s = SEG_SIZE * i;
+      double cx = (raw[s + 2] + raw[s + 4]) / 2;
+      double cy = (raw[s + 3] + raw[s + 5]) / 2;
+      long z = interleave((int) ((cx - minX) * scale)) | (interleave((int) ((cy - minY) * scale)) << 1);
+      keys[i] = (z << 32) | i;
+    }
+    Arrays.sort(keys);
+
+    double[] sorted = new double[SEG_SIZE * n];
+    for (int i = 0; i < n; i++) {
+      int src = (int) keys[i];
+      System.arraycopy(raw, SEG_SIZE * src, sorted, SEG_SIZE * i, SEG_SIZE);
+    }
+    return sorted;
+  }
+
+  // spreads the low 15 bits of v to the even bits of the result
+  private static long interleave(int v) {
+    long x = v & 0x7FFF;
+    x = (x | (x << 8)) & 0x00FF00FFL;
+    x = (x | (x << 4)) & 0x0F0F0F0FL;
+    x = (x | (x << 2)) & 0x33333333L;
+    x = (x | (x << 1)) & 0x55555555L;
+    return x;
+  }
+
+  private void computeBounds() {
+    for (int node = 0; node < levelSizes[0]; node++) {
+      int b = 4 * node;
+      initBounds(b);
+      int end = Math.min((node + 1) * NODE_CAPACITY, numSegs);
+      for (int s = node * NODE_CAPACITY; s < end; s++) {
+        int pos = SEG_SIZE * s;
+        expandBounds(b, segs[pos + 2], segs[pos + 3]);
+        expandBounds(b, segs[pos + 4], segs[pos + 5]);
+      }
+    }
+    for (int level = 1; level < levelSizes.length; level++) {
+      int childOffset = levelOffsets[level - 1];
+      int numChildren = levelSizes[level - 1];
+      for (int node = 0; node < levelSizes[level]; node++) {
+        int b = 4 * (levelOffsets[level] + node);
+        initBounds(b);
+        int end = Math.min((node + 1) * NODE_CAPACITY, numChildren);
+        for (int child = node * NODE_CAPACITY; child < end; child++) {
+          int cb = 4 * (childOffset + child);
+          expandBounds(b, bounds[cb], bounds[cb + 1]);
+          expandBounds(b, bounds[cb + 2], bounds[cb + 3]);
+        }
+      }
+    }
+  }
+
+  private void initBounds(int b) {
+    bounds[b] = Double.POSITIVE_INFINITY;
+    bounds[b + 1] = Double.POSITIVE_INFINITY;
+    bounds[b + 2] = Double.NEGATIVE_INFINITY;
+    bounds[b + 3] = Double.NEGATIVE_INFINITY;
+  }
+
+  private void expandBounds(int b, double x, double y) {
+    if (x < bounds[b]) bounds[b] = x;
+    if (y < bounds[b + 1]) bounds[b + 1] = y;
+    if (x > bounds[b + 2]) bounds[b + 2] = x;
+    if (y > bounds[b + 3]) bounds[b + 3] = y;
+  }
+
+  /**
+   * Computes the signed distance from a point to the boundary.
+   *
+   * @return the distance to the boundary, negated if the point is outside
+   */
+  public double distance(double x, double y) {
+    boxScaleX = 0;
+    boxScaleY = 0;
+    if (!search(x, y)) {
+      return Double.NEGATIVE_INFINITY;
+    }
+    double dist = Math.sqrt(bestDist);
+    // Points outside has a negative distance and thus will be weighted down later.
+    return inside ? dist : -dist;
+  }
+
+  /**
+   * Computes the signed size of the largest axis-aligned box of a given shape,
+   * centered on a point, which does not cross the boundary.
+   * This is the distance to the boundary in the metric whose unit ball is the box.
+   *
+   * @param halfWidth the half width of the unit box
+   * @param halfHeight the half height of the unit box
+   * @return the largest scale of the unit box which fits, negated if the point is outside
+   */
+  public double boxDistance(double x, double y, double halfWidth, double halfHeight) {
+    boxScaleX = 1 / halfWidth;
+    boxScaleY = 1 / halfHeight;
+    if (!search(x, y)) {
+      return Double.NEGATIVE_INFINITY;
+    }
+    return inside ? bestDist : -bestDist;
+  }
+
+  /**
+   * Finds the nearest distance to the boundary and the side of the point.
+   *
+   * @return false if there are no segments
+   */
+  private boolean search(double x, double y) {
+    bestDist = Double.POSITIVE_INFINITY;
+    inside = false;
+    ambiguous = false;
+    if (numSegs == 0) {
+      return false;
+    }
+
+    int top = 0;
+    stack[top++] = levelSizes.length - 1;
+    stack[top++] = 0;
+    while (top > 0) {
+      int node = stack[--top];
+      int level = stack[--top];
+      // ties are not pruned, so that all equally near segments are seen
+      if (boundsDistance(4 * (levelOffsets[level] + node), x, y) > bestDist) {
+        continue;
+      }
+      if (level == 0) {
+        scanLeaf(node, x, y);
+        continue;
+      }
+      top = pushChildren(level, node, x, y, top);
+    }
+    if (ambiguous) {
+      inside = isInsideByCrossings(x, y);
+    }
+    return true;
+  }
+
+  /**
+   * Pushes the children of a node which may hold a segment no farther than the nearest so far,
+   * nearest last, so that the search descends into the nearest child first and prunes more.
+   *
+   * @return the new stack top
+   */
+  private int pushChildren(int level, int node, double x, double y, int top) {
+    int start = node * NODE_CAPACITY;
+    int end = Math.min(start + NODE_CAPACITY, levelSizes[level - 1]);
+    int childOffset = levelOffsets[level - 1];
+    int n = 0;
+    for (int child = start; child < end; child++) {
+      double d = boundsDistance(4 * (childOffset + child), x, y);
+      if (d > bestDist) {
+        continue;
+      }
+      // insertion sort by decreasing distance
+      int i = n++;
+      while (i > 0 && childDist[i - 1] < d) {
+        childDist[i] = childDist[i - 1];
+        childIndex[i] = childIndex[i - 1];
+        i--;
+      }
+      childDist[i] = d;
+      childIndex[i] = child;
+    }
+    for (int i = 0; i < n; i++) {
+      stack[top++] = level - 1;
+      stack[top++] = childIndex[i];
+    }
+    return top;
+  }
+
+  private double boundsDistance(int b, double x, double y) {
+    double dx = x < bounds[b] ? bounds[b] - x : x > bounds[b + 2] ? x - bounds[b + 2] : 0;
+    double dy = y < bounds[b + 1] ? bounds[b + 1] - y : y > bounds[b + 3] ? y - bounds[b + 3] : 0;
+    if (boxScaleX > 0) {
+      return Math.max(dx * boxScaleX, dy * boxScaleY);
+    }
+    return dx * dx + dy * dy;
+  }
+
+  private void scanLeaf(int node, double px, double py) {
+    int end = Math.min((node + 1) * NODE_CAPACITY, numSegs);
+    for (int s = node * NODE_CAPACITY; s < end; s++) {
+      int pos = SEG_SIZE * s;
+      double ax = segs[pos + 2];
+      double ay = segs[pos + 3];
+      double bx = segs[pos + 4];
+      double by = segs[pos + 5];
+      double dx = bx - ax;
+      double dy = by - ay;
+      double t;
+      double dist;
+      if (boxScaleX > 0) {
+        double x0 = (ax - px) * boxScaleX;
+        double y0 = (ay - py) * boxScaleY;
+        double ex = dx * boxScaleX;
+        double ey = dy * boxScaleY;
+        t = boxNearestParam(x0, y0, ex, ey);
+        dist = boxNorm(x0, y0, ex, ey, t);
+      } else {
+        t = ((px - ax) * dx + (py - ay) * dy) / (dx * dx + dy * dy);
+        double qx, qy;
+        if (t <= 0) {
+          qx = ax;
+          qy = ay;
+        } else if (t >= 1) {
+          qx = bx;
+          qy = by;
+        } else {
+          qx = ax + dx * t;
+          qy = ay + dy * t;
+        }
+        dist = (px - qx) * (px - qx) + (py - qy) * (py - qy);
+      }
+      if (dist > bestDist) {
+        continue;
+      }
+
+      boolean isInside;
+      if (t <= 0) {
+        isInside = isInsideAtVertex(segs[pos], segs[pos + 1], ax, ay, bx, by, px, py);
+      } else if (t >= 1) {
+        isInside = isInsideAtVertex(ax, ay, bx, by, segs[pos + 6], segs[pos + 7], px, py);
+      } else {
+        isInside = isLeft(ax, ay, bx, by, px, py);
+      }
+      if (dist < bestDist) {
+        bestDist = dist;
+        inside = isInside;
+        ambiguous = false;
+      } else if (isInside != inside) {
+        ambiguous = true;
+      }
+    }
+  }
+
+  /**
+   * Finds the parameter of the point on the segment (x0, y0) + t (ex, ey), 0 &lt;= t &lt;= 1,
+   * nearest the origin in the max-norm.
+   * The norm is convex and piecewise linear along the segment,
+   * so its minimum lies at an end or where a coordinate is zero or the coordinates have equal magnitude.
+   */
+  private static double boxNearestParam(double x0, double y0, double ex, double ey) {
+    double bestT = boxNorm(x0, y0, ex, ey, 1) < boxNorm(x0, y0, ex, ey, 0) ? 1 : 0;
+    bestT = nearerParam(x0, y0, ex, ey, bestT, -x0 / ex);
+    bestT = nearerParam(x0, y0, ex, ey, bestT, -y0 / ey);
+    bestT = nearerParam(x0, y0, ex, ey, bestT, (y0 - x0) / (ex - ey));
+    return nearerParam(x0, y0, ex, ey, bestT, -(x0 + y0) / (ex + ey));
+  }
+
+  // candidate parameters outside the segment (or NaN from a zero divisor) are ignored
+  private static double nearerParam(double x0, double y0, double ex, double ey, double bestT, double t) {
+    if (t > 0 && t < 1 && boxNorm(x0, y0, ex, ey, t) < boxNorm(x0, y0, ex, ey, bestT)) {
+      return t;
+    }
+    return bestT;
+  }
+
+  private static double boxNorm(double x0, double y0, double ex, double ey, double t) {
+    return Math.max(Math.abs(x0 + t * ex), Math.abs(y0 + t * ey));
+  }
+
+  /**
+   * Determines the side of a point whose nearest boundary point is the vertex b,
+   * between the edges a-b and b-c.
+   */
+  private static boolean isInsideAtVertex(double ax, double ay, double bx, double by,
+      double cx, double cy, double px, double py) {
+    boolean leftOfIn = isLeft(ax, ay, bx, by, px, py);
+    boolean leftOfOut = isLeft(bx, by, cx, cy, px, py);
+    if (isLeft(ax, ay, bx, by, cx, cy)) {
+      // convex vertex
+      return leftOfIn && leftOfOut;
+    }
+    return leftOfIn || leftOfOut;
+  }
+
+  private static boolean isLeft(double ax, double ay, double bx, double by, double px, double py) {
+    return (bx - ax) * (py - ay) - (by - ay) * (px - ax) > 0;
+  }
+
+  /**
+   * Determines inside/outside by the parity of crossings of a ray to the right of the point.
+   * Used only to resolve ties between rings, so it scans all segments.
+   */
+  private boolean isInsideByCrossings(double px, double py) {
+    boolean isInside = false;
+    for (int s = 0; s < numSegs; s++) {
+      int pos = SEG_SIZE * s;
+      double ax = segs[pos + 2];
+      double ay = segs[pos + 3];
+      double bx = segs[pos + 4];
+      double by = segs[pos + 5];
+      if ((ay > py != by > py) && (px < (bx - ax) * (py - ay) / (by - ay) + ax)) {
+        isInside = !isInside;
+      }
+    }
+    return isInside;
+  }
+}
@@ -0,0 +1,83 @@
+/*
+ *    GeoTools - The Open Source Java GIS Toolkit
+ *    http://geotools.org
+ *
+ *    (C) 2016, Open Source Geospatial Foundation (OSGeo)
+ *
+ *    This library is free software; you can redistribute it and/or
+ *    modify it under the terms of the GNU Lesser General Public
+ *    License as published by the Free Software Foundation;
+ *    version 2.1 of the License.
+ *
+ *    This library is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *    Lesser General Public License for more details.
+ *
+ */
+package org.geotools.polylabelfast;
+
+import org.locationtech.jts.geom.Point;
+
+/**
+ * The result of a budgeted label search:
+ * the best point found, and how close it is known to be to the optimum.
+ *
+ * @see PolyLabellerFast#getLabel(double, int, long)
+ */
+public class LabelResult {
+
+  private final Point point;
+  private final double distance;
+  private final double errorBound;
+  private final int numProbes;
+  private final boolean complete;
+
+  LabelResult(Point point, double distance, double errorBound, int numProbes, boolean complete) {
+    this.point = point;
+    this.distance = distance;
+    this.errorBound = errorBound;
+    this.numProbes = numProbes;
+    this.complete = complete;
+  }
+
+  public Point getPoint() {
+    return point;
+  }
+
+  /**
+   * Gets the signed distance from the label point to the polygon boundary.
+   */
+  public double getDistance() {
+    return distance;
+  }
+
+  /**
+   * Gets an upper bound on how much further from the boundary the optimal label point lies.
+   * This is at most the precision if the search completed,
+   * and infinite if the budget ran out before the polygon was covered with initial cells.
+   */
+  public double getErrorBound() {
+    return errorBound;
+  }
+
+  /**
+   * Gets the number of distance probes used.
+   */
+  public int getNumProbes() {
+    return numProbes;
+  }
+
+  /**
+   * Tests whether the search met the precision within the budget.
+   */
+  public boolean isComplete() {
+    return complete;
+  }
+
+  @Override
+  public String toString() {
+    return "LabelResult [point=" + point + ", distance=" + distance + ", errorBound=" + errorBound
+        + ", numProbes=" + numProbes + ", complete=" + complete + "]";
+  }
+}
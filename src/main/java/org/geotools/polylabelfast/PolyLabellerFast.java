@@ -17,20 +17,24 @@
  */
 package org.geotools.polylabelfast;
 
-import java.util.PriorityQueue;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 import java.util.logging.Level;
 import java.util.logging.Logger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
-import org.locationtech.jts.algorithm.locate.IndexedPointInAreaLocator;
+import org.geotools.polylabel.CellQueue;
 import org.locationtech.jts.geom.Coordinate;
 import org.locationtech.jts.geom.Envelope;
 import org.locationtech.jts.geom.Geometry;
-import org.locationtech.jts.geom.Location;
+import org.locationtech.jts.geom.MultiPoint;
 import org.locationtech.jts.geom.MultiPolygon;
 import org.locationtech.jts.geom.Point;
 import org.locationtech.jts.geom.Polygon;
 import org.locationtech.jts.operation.distance.DistanceOp;
-import org.locationtech.jts.operation.distance.IndexedFacetDistance;
 
 
 /**
@@ -39,93 +43,242 @@ import org.locationtech.jts.operation.distance.IndexedFacetDistance;
  */
 public class PolyLabellerFast {
 
+  /**
+   * Polygons are labelled in parallel in groups of this many.
+   */
+  private static final int PARALLEL_GROUP_SIZE = 16;
+
+  /**
+   * Cell queues, reused per thread.
+   */
+  private static final ThreadLocal<CellQueue> CELL_QUEUE = ThreadLocal.withInitial(CellQueue::new);
+
   public static Point getPoint(Geometry polygon, double precision) {
     PolyLabellerFast labeller = new PolyLabellerFast(polygon, precision);
     return labeller.getPoint();
   }
+
+  /**
+   * Computes a label point for each polygonal element of a geometry (such as a MultiPolygon), in parallel.
+   * 
+   * @return a MultiPoint with one point per element, in element order
+   */
+  public static MultiPoint getPoints(Geometry polygons, double precision) {
+    Geometry[] elements = new Geometry[polygons.getNumGeometries()];
+    for (int i = 0; i < elements.length; i++) {
+      elements[i] = polygons.getGeometryN(i);
+    }
+    List<Point> points = getPoints(Arrays.asList(elements), precision);
+    return polygons.getFactory().createMultiPoint(points.toArray(new Point[0]));
+  }
+
+  /**
+   * Computes label points for a stream of polygons in parallel.
+   * 
+   * @see #getPoints(List, double)
+   */
+  public static List<Point> getPoints(Stream<? extends Geometry> polygons, double precision) {
+    return getPoints(polygons.collect(Collectors.toList()), precision);
+  }
+
+  /**
+   * Computes label points for a list of polygons in parallel, using the common fork-join pool.
+   * Each thread reuses its cell queue across polygons.
+   * 
+   * @return the label points, in list order
+   * @throws IllegalStateException if any geometry is not polygonal, or is empty
+   */
+  public static List<Point> getPoints(List<? extends Geometry> polygons, double precision) {
+    Point[] points = new Point[polygons.size()];
+    ForkJoinPool.commonPool().invoke(new LabelTask(polygons, precision, points, 0, points.length));
+    return Arrays.asList(points);
+  }
   
-  private Geometry polygon;
+  private final Geometry polygon;
   private double precision;
-  private IndexedPointInAreaLocator locater;
-  private Geometry boundary;
-  private IndexedFacetDistance indexedDistance;
+  private final IndexedSignedDistance signedDistance;
+  private final Envelope env;
+  private final double centroidX;
+  private final double centroidY;
+  private final double centroidD;
+
+  // the half size of the unit label box of the current search, or 0 for a point search
+  private double boxHalfWidth;
+  private double boxHalfHeight;
   
-  PolyLabellerFast(Geometry polygon, double precision) {
+  /**
+   * Prepares a polygon for labelling, as a session which computes label points
+   * at any number of tolerances (e.g. one per zoom level) without re-preparing it.
+   * The signed-distance index and the centroid are computed once.
+   * A session must not be used from several threads at once.
+   * 
+   * @throws IllegalStateException if the geometry is not a Polygon or MultiPolygon, or is empty
+   */
+  public PolyLabellerFast(Geometry polygon) {
+    if (!(polygon instanceof Polygon) && !(polygon instanceof MultiPolygon)) {
+      throw new IllegalStateException("Input polygon must be a Polygon or MultiPolygon");
+    }
+
+    if (polygon.isEmpty() || polygon.getArea() <= 0.0) {
+      throw new IllegalStateException("Can not label empty geometries");
+    }
+
+    //TODO: can skip this check if better distance algorithm is used (VERY slow) 
+    /*
+    if (!polygon.isValid()) {
+      throw new IllegalStateException("Can not label invalid geometries");
+    }
+    */
+
     this.polygon = polygon;
+    signedDistance = new IndexedSignedDistance(polygon);
+    env = polygon.getEnvelopeInternal();
+    Point centroid = polygon.getCentroid();
+    centroidX = centroid.getX();
+    centroidY = centroid.getY();
+    centroidD = distanceToPoly(centroidX, centroidY);
+  }
+  
+  PolyLabellerFast(Geometry polygon, double precision) {
+    this(polygon);
     this.precision = precision;
-    locater = new IndexedPointInAreaLocator(polygon);
-    boundary = polygon.getBoundary();
-    indexedDistance = new IndexedFacetDistance(boundary);
   }
   
-  private double distanceToPoly(Point p) {
-    boolean inside = Location.EXTERIOR != locater.locate(p.getCoordinate());
-    //double dist = DistanceOp.distance(p, boundary);
-    double dist = indexedDistance.distance(p);
-
-    // Points outside has a negative distance and thus will be weighted down later.
-    return (inside ? 1 : -1) * dist;
+  private double distanceToPoly(double x, double y) {
+    return signedDistance.distance(x, y);
   }
   
     public Point getPoint() {
+        return getPoint(precision);
+    }
 
-        Geometry multiPolygon;
-        if (polygon instanceof Polygon) {
-            multiPolygon = polygon;
-        } else if (polygon instanceof MultiPolygon) {
-            multiPolygon = (MultiPolygon) polygon;
-        } else {
-            throw new IllegalStateException("Input polygon must be a Polygon or MultiPolygon");
-        }
+    /**
+     * Computes a label point.
+     * 
+     * @param precision the tolerance distance for point placement
+     */
+    public Point getPoint(double precision) {
+        return getLabel(precision, Integer.MAX_VALUE, Long.MAX_VALUE).getPoint();
+    }
 
-        if (polygon.isEmpty() || polygon.getArea() <= 0.0) {
-            throw new IllegalStateException("Can not label empty geometries");
-        }
+    /**
+     * Computes a label point within a budget.
+     * The search stops when the precision is met, when the next step would exceed the probe budget,
+     * or when the time budget has run out, and returns the best point found so far
+     * together with a bound on how far its distance may be from the optimum.
+     * 
+     * @param precision the tolerance distance for point placement
+     * @param maxProbes the maximum number of distance probes
+     * @param timeoutNanos the maximum time to search, in nanoseconds
+     */
+    public LabelResult getLabel(double precision, int maxProbes, long timeoutNanos) {
+        return search(precision, maxProbes, timeoutNanos, 0, 0);
+    }
+
+    /**
+     * Computes the placement of a rectangular label of a given shape.
+     * 
+     * @param width the label width
+     * @param height the label height
+     * @param precision the tolerance for the label scale
+     * @return the center of the label
+     * @see #getRectangleLabel(double, double, double, int, long)
+     */
+    public Point getRectanglePoint(double width, double height, double precision) {
+        return getRectangleLabel(width, height, precision, Integer.MAX_VALUE, Long.MAX_VALUE).getPoint();
+    }
+
+    /**
+     * Computes the placement of a rectangular label of a given shape, within a budget.
+     * This finds the center of the largest axis-aligned rectangle with the label's aspect ratio
+     * which fits in the polygon, using the same cell search as for a point label,
+     * with distances measured in the metric whose unit ball is the label box.
+     * <p>
+     * The result distance is the scale of the largest rectangle found,
+     * so the label fits at its given size if this is at least 1.
+     * The precision and error bound are also in units of scale.
+     * 
+     * @param width the label width
+     * @param height the label height
+     * @param precision the tolerance for the label scale
+     * @param maxProbes the maximum number of distance probes
+     * @param timeoutNanos the maximum time to search, in nanoseconds
+     */
+    public LabelResult getRectangleLabel(double width, double height, double precision,
+        int maxProbes, long timeoutNanos) {
+      if (!(width > 0) || !(height > 0)) {
+        throw new IllegalArgumentException("Label width and height must be positive");
+      }
+      return search(precision, maxProbes, timeoutNanos, width / 2, height / 2);
+    }
+
+    /**
+     * Runs the cell search. A rectangle search runs in coordinates scaled by the unit label box,
+     * where the label box is a square and the objective is the max-norm distance to the boundary.
+     */
+    private LabelResult search(double precision, int maxProbes, long timeoutNanos,
+        double boxHalfWidth, double boxHalfHeight) {
+        long start = timeoutNanos == Long.MAX_VALUE ? 0 : System.nanoTime();
+        this.boxHalfWidth = boxHalfWidth;
+        this.boxHalfHeight = boxHalfHeight;
+        double unitX = boxHalfWidth > 0 ? boxHalfWidth : 1;
+        double unitY = boxHalfHeight > 0 ? boxHalfHeight : 1;
 
-        //TODO: can skip this check if better distance algorithm is used (VERY slow) 
-        /*
-        if (!polygon.isValid()) {
-            throw new IllegalStateException("Can not label invalid geometries");
-        }
-*/
-        
         // find the bounding box of the outer ring
         double minX, minY, maxX, maxY;
-        Envelope env = multiPolygon.getEnvelopeInternal();
-        minX = env.getMinX();
-        maxX = env.getMaxX();
-        minY = env.getMinY();
-        maxY = env.getMaxY();
-        double width = env.getWidth();
-        double height = env.getHeight();
+        minX = env.getMinX() / unitX;
+        maxX = env.getMaxX() / unitX;
+        minY = env.getMinY() / unitY;
+        maxY = env.getMaxY() / unitY;
+        double width = maxX - minX;
+        double height = maxY - minY;
         double cellSize = Math.min(width, height);
         double h = cellSize / 2.0;
 
         // a priority queue of cells in order of their "potential" (max distance
         // to polygon)
-        PriorityQueue<Cell> cellQueue = new PriorityQueue<>();
+        CellQueue cellQueue = CELL_QUEUE.get();
+        cellQueue.clear();
 
         // cover polygon with initial cells
+        boolean covered = true;
+        cover:
         for (double x = minX; x < maxX; x += cellSize) {
             for (double y = minY; y < maxY; y += cellSize) {
-                cellQueue.add(createCell(x + h, y + h, h));
+                if (cellQueue.size() >= maxProbes || isTimedOut(start, timeoutNanos)) {
+                    covered = false;
+                    break cover;
+                }
+                addCell(cellQueue, x + h, y + h, h);
             }
         }
 
         // take centroid as the first best guess
-        Cell bestCell = getCentroidCell(multiPolygon);
+        double bestX = centroidX / unitX;
+        double bestY = centroidY / unitY;
+        double bestD = boxHalfWidth > 0
+            ? signedDistance.boxDistance(centroidX, centroidY, boxHalfWidth, boxHalfHeight)
+            : centroidD;
         int numProbes = cellQueue.size();
 
-        while (!cellQueue.isEmpty()) {
+        // greatest potential of the cells not split further
+        double settledMax = Double.NEGATIVE_INFINITY;
+        boolean complete = covered;
+
+        while (complete && !cellQueue.isEmpty()) {
             // pick the most promising cell from the queue
-            Cell cell = cellQueue.remove();
+            cellQueue.remove();
+            double cellX = cellQueue.getX();
+            double cellY = cellQueue.getY();
 
             // update the best cell if we found a better one
-            if (cell.getD() > bestCell.getD()) {
-                bestCell = cell;
+            if (cellQueue.getD() > bestD) {
+                bestX = cellX;
+                bestY = cellY;
+                bestD = cellQueue.getD();
                 /*
                 if (LOGGER.isLoggable(Level.FINER)) {
-                    LOGGER.finer("found best " + (Math.round(1e4 * cell.getD()) / 1e4) + " after "
+                    LOGGER.finer("found best " + (Math.round(1e4 * bestD) / 1e4) + " after "
                             + numProbes + " probes");
                 }
                 */
@@ -133,45 +286,97 @@ public class PolyLabellerFast {
 
             // do not drill down further if there's no chance of a better
             // solution
-            if (cell.getMax() - bestCell.getD() <= precision)
+            if (cellQueue.getMax() - bestD <= precision) {
+                settledMax = Math.max(settledMax, cellQueue.getMax());
                 continue;
+            }
+
+            if (numProbes > maxProbes - 4 || isTimedOut(start, timeoutNanos)) {
+                settledMax = Math.max(settledMax, cellQueue.getMax());
+                complete = false;
+                break;
+            }
 
             // split the cell into four cells
-            h = cell.getH() / 2;
-            cellQueue.add(createCell(cell.getX() - h, cell.getY() - h, h));
-            cellQueue.add(createCell(cell.getX() + h, cell.getY() - h, h));
-            cellQueue.add(createCell(cell.getX() - h, cell.getY() + h, h));
-            cellQueue.add(createCell(cell.getX() + h, cell.getY() + h, h));
+            h = cellQueue.getH() / 2;
+            addCell(cellQueue, cellX - h, cellY - h, h);
+            addCell(cellQueue, cellX + h, cellY - h, h);
+            addCell(cellQueue, cellX - h, cellY + h, h);
+            addCell(cellQueue, cellX + h, cellY + h, h);
             numProbes += 4;
         }
 
         /*
         if (LOGGER.isLoggable(Level.FINER)) {
             LOGGER.finer("num probes: " + numProbes);
-            LOGGER.finer("best distance: " + bestCell.getD());
+            LOGGER.finer("best distance: " + bestD);
         }
         */
 
-        return createPoint(bestCell);
+        double errorBound;
+        if (!covered) {
+            errorBound = Double.POSITIVE_INFINITY;
+        } else {
+            double max = cellQueue.isEmpty() ? settledMax : Math.max(settledMax, cellQueue.peekMax());
+            errorBound = Math.max(max - bestD, 0);
+        }
+        return new LabelResult(createPoint(bestX * unitX, bestY * unitY), bestD, errorBound, numProbes, complete);
+    }
+
+    private static boolean isTimedOut(long start, long timeoutNanos) {
+        return timeoutNanos != Long.MAX_VALUE && System.nanoTime() - start >= timeoutNanos;
     }
 
-    Point createPoint(Cell cell) {
-      return createPoint(cell.getX(), cell.getY());
-    }  
     Point createPoint(double x, double y) {
       Coordinate coord = new Coordinate(x, y);
       return polygon.getFactory().createPoint(coord);
     }
     
-    Cell createCell(double x, double y, double h) {
-      return new Cell(x, y, h, distanceToPoly(createPoint(x, y)));
+    private void addCell(CellQueue cellQueue, double x, double y, double h) {
+      if (boxHalfWidth > 0) {
+        // the max-norm distance changes by at most h within the cell
+        double d = signedDistance.boxDistance(x * boxHalfWidth, y * boxHalfHeight, boxHalfWidth, boxHalfHeight);
+        cellQueue.add(x, y, h, d, d + h);
+        return;
+      }
+      cellQueue.add(x, y, h, distanceToPoly(x, y));
     }
-    
-    // get a cell centered on polygon centroid
-    private Cell getCentroidCell(Geometry poly) {
-        Point p = poly.getCentroid();
-        return new Cell(p.getX(), p.getY(), 0, distanceToPoly(p));
+
+  /**
+   * Labels a range of polygons,
+   * splitting the range until it is no larger than a group.
+   */
+  private static class LabelTask extends RecursiveAction {
+
+    private static final long serialVersionUID = 1L;
+
+    private final List<? extends Geometry> polygons;
+    private final double precision;
+    private final Point[] points;
+    private final int start;
+    private final int end;
+
+    LabelTask(List<? extends Geometry> polygons, double precision, Point[] points, int start, int end) {
+      this.polygons = polygons;
+      this.precision = precision;
+      this.points = points;
+      this.start = start;
+      this.end = end;
+    }
+
+    @Override
+    protected void compute() {
+      if (end - start <= PARALLEL_GROUP_SIZE) {
+        for (int i = start; i < end; i++) {
+          points[i] = new PolyLabellerFast(polygons.get(i), precision).getPoint();
+        }
+        return;
+      }
+      int mid = (start + end) >>> 1;
+      invokeAll(new LabelTask(polygons, precision, points, start, mid),
+          new LabelTask(polygons, precision, points, mid, end));
     }
+  }
 
 
 }
\ No newline at end of file
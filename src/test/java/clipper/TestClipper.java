@@ -1,17 +1,29 @@
 package clipper;
 
+import java.util.Random;
+
+import org.locationtech.jts.geom.Coordinate;
 import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.geom.LinearRing;
+import org.locationtech.jts.geom.Polygon;
 import org.locationtech.jts.io.ParseException;
 import org.locationtech.jts.io.WKTReader;
+import org.locationtech.jts.operation.overlayng.OverlayNG;
+import org.locationtech.jts.operation.overlayng.OverlayNGRobust;
 
 import clipper.jts.JtsClipper;
 
 public class TestClipper {
 
+  private static final GeometryFactory geomFact = new GeometryFactory();
+
   public static void main(String[] args) {
     testSimple();
     testMultiResult();
     testMultiUnaryUnion();
+    testParallel();
+    testHolesAndIslands();
   }
 
   private static void testSimple() {
@@ -34,6 +46,77 @@ public class TestClipper {
     System.out.println(res);
   }
   
+  /**
+   * Parallel operations split the input into groups of 64 polygons,
+   * so they must agree with the serial operations on larger inputs.
+   */
+  private static void testParallel() {
+    Random random = new Random(7);
+    Geometry a = randomRectangles(random, 300);
+    Geometry b = randomRectangles(random, 300);
+    checkSame("unaryUnionParallel", JtsClipper.unaryUnion(a, 1), JtsClipper.unaryUnionParallel(a, 1));
+    checkSame("unionParallel", JtsClipper.union(a, b, 1), JtsClipper.unionParallel(a, b, 1));
+    checkSame("intersectionParallel", JtsClipper.intersection(a, b, 1), JtsClipper.intersectionParallel(a, b, 1));
+  }
+
+  /**
+   * Holes must be assigned to their shells, and islands inside holes must become
+   * separate polygons rather than holes of holes.
+   */
+  private static void testHolesAndIslands() {
+    Geometry a = read("MULTIPOLYGON (((0 0, 100 0, 100 100, 0 100, 0 0), (20 20, 20 80, 80 80, 80 20, 20 20)), "
+        + "((40 40, 60 40, 60 60, 40 60, 40 40)))");
+    Geometry b = read("POLYGON ((50 30, 150 30, 150 70, 50 70, 50 30), (110 40, 110 60, 130 60, 130 40, 110 40))");
+    checkSame("holes union", OverlayNGRobust.overlay(a, b, OverlayNG.UNION), JtsClipper.union(a, b, 1));
+    checkSame("holes intersection", OverlayNGRobust.overlay(a, b, OverlayNG.INTERSECTION), JtsClipper.intersection(a, b, 1));
+
+    // an island in a hole is its own polygon
+    Geometry island = JtsClipper.unaryUnion(a, 1);
+    checkSame("island", a, island);
+    if (island.getNumGeometries() != 2 || ((Polygon) island.getGeometryN(0)).getNumInteriorRing()
+        + ((Polygon) island.getGeometryN(1)).getNumInteriorRing() != 1) {
+      throw new RuntimeException("island: expected a polygon with a hole and an island but was " + island);
+    }
+  }
+
+  /**
+   * Creates overlapping rectangles with integer coordinates, some with holes,
+   * so that all results are exact at scale 1.
+   */
+  private static Geometry randomRectangles(Random random, int n) {
+    Polygon[] polys = new Polygon[n];
+    for (int i = 0; i < n; i++) {
+      int x = random.nextInt(1000);
+      int y = random.nextInt(1000);
+      int w = 10 + random.nextInt(60);
+      int h = 10 + random.nextInt(60);
+      LinearRing shell = ring(x, y, x + w, y + h);
+      if (w > 30 && h > 30) {
+        polys[i] = geomFact.createPolygon(shell, new LinearRing[] { ring(x + 10, y + 10, x + w - 10, y + h - 10) });
+      }
+      else {
+        polys[i] = geomFact.createPolygon(shell);
+      }
+    }
+    return geomFact.createMultiPolygon(polys);
+  }
+
+  private static LinearRing ring(int minX, int minY, int maxX, int maxY) {
+    return geomFact.createLinearRing(new Coordinate[] {
+        new Coordinate(minX, minY), new Coordinate(maxX, minY), new Coordinate(maxX, maxY),
+        new Coordinate(minX, maxY), new Coordinate(minX, minY)
+    });
+  }
+
+  private static void checkSame(String name, Geometry expected, Geometry actual) {
+    double diff = OverlayNGRobust.overlay(expected, actual, OverlayNG.SYMDIFFERENCE).getArea();
+    System.out.println(name + ": area " + actual.getArea() + ", difference " + diff);
+    // polygons touching at a vertex may be merged or not, so only the covered area is compared
+    if (diff > 0) {
+      throw new RuntimeException(name + ": differs by area " + diff + " from " + expected);
+    }
+  }
+
   public static Geometry read(String wkt) {
     WKTReader reader = new WKTReader();
     try {
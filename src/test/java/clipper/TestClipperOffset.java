@@ -0,0 +1,127 @@
+package clipper;
+
+import java.util.Random;
+
+import clipper.Clipper.EndType;
+import clipper.Clipper.JoinType;
+import clipper.Point.LongPoint;
+
+/**
+ * Checks round-join offsets of random paths against checksums of the output
+ * of the original arc generation, which rotated the normal one step at a time.
+ */
+public class TestClipperOffset {
+
+  private static final double[] DELTAS = { 250, -250, 7.5, 1.25, -1.25, 3.5e6, 1e8 };
+
+  // large deltas produce long arcs, so they are checked on fewer cases
+  private static final int[] CASES = { 400, 400, 400, 400, 400, 40, 12 };
+
+  private static final long[] EXPECTED = {
+      -6487557902881835181L, 251864949220360714L, -7287129330555385780L, -3877990394776851393L,
+      8457925578429114189L, -7249514855219792160L, -6772397283252117794L
+  };
+
+  public static void main(String[] args) {
+    testArcChecksums();
+    testDuplicatePoints();
+  }
+
+  private static void testArcChecksums() {
+    for (int i = 0; i < DELTAS.length; i++) {
+      long checksum = checksum(DELTAS[i], CASES[i]);
+      // run again to use the cached arc tables
+      long cached = checksum(DELTAS[i], CASES[i]);
+      System.out.println("delta " + DELTAS[i] + ": checksum " + checksum + "L");
+      if (checksum != EXPECTED[i]) {
+        throw new RuntimeException("delta " + DELTAS[i] + ": expected checksum " + EXPECTED[i] + " but was " + checksum);
+      }
+      if (cached != checksum) {
+        throw new RuntimeException("delta " + DELTAS[i] + ": cached checksum " + cached + " differs from " + checksum);
+      }
+    }
+  }
+
+  /**
+   * Duplicate points are equal points, not just the same point objects,
+   * so both entry points must remove them alike.
+   */
+  private static void testDuplicatePoints() {
+    Path path = new Path();
+    long[] xy = { 0, 0, 0, 0, 100, 0, 100, 100, 100, 100, 0, 100, 0, 0 };
+    for (int i = 0; i < xy.length; i += 2) {
+      path.add(new LongPoint(xy[i], xy[i + 1]));
+    }
+    LongPaths paths = new LongPaths();
+    paths.addPath(path);
+
+    for (EndType endType : new EndType[] { EndType.CLOSED_POLYGON, EndType.CLOSED_LINE, EndType.OPEN_SQUARE }) {
+      ClipperOffset offset = new ClipperOffset();
+      offset.addPath(path, JoinType.MITER, endType);
+      Paths fromPath = new Paths();
+      offset.execute(fromPath, 10);
+
+      offset = new ClipperOffset();
+      offset.addPath(paths, 0, JoinType.MITER, endType);
+      Paths fromLongPaths = new Paths();
+      offset.execute(fromLongPaths, 10);
+
+      System.out.println(endType + ": " + fromPath);
+      if (!fromPath.equals(fromLongPaths)) {
+        throw new RuntimeException(endType + ": Path offset " + fromPath + " differs from LongPaths offset " + fromLongPaths);
+      }
+    }
+  }
+
+  /**
+   * Offsets random closed polygons, open paths and single points.
+   */
+  private static long checksum(double delta, int cases) {
+    Random random = new Random(4711);
+    long checksum = 0;
+    for (int i = 0; i < cases; i++) {
+      EndType endType;
+      Path path;
+      switch (i % 4) {
+        case 0:
+        case 1:
+          endType = EndType.CLOSED_POLYGON;
+          path = randomPath(random, 3 + random.nextInt(30), true);
+          break;
+        case 2:
+          endType = EndType.OPEN_ROUND;
+          path = randomPath(random, 2 + random.nextInt(10), false);
+          break;
+        default:
+          endType = EndType.OPEN_ROUND;
+          path = randomPath(random, 1, false);
+      }
+      ClipperOffset offset = new ClipperOffset();
+      offset.addPath(path, JoinType.ROUND, endType);
+      Paths solution = new Paths();
+      offset.execute(solution, delta);
+      for (Path p : solution) {
+        checksum = checksum * 31 + p.size();
+        for (LongPoint pt : p) {
+          checksum = (checksum * 31 + pt.getX()) * 31 + pt.getY();
+        }
+      }
+    }
+    return checksum;
+  }
+
+  /**
+   * Creates a random star-shaped path around the origin.
+   */
+  private static Path randomPath(Random random, int n, boolean closed) {
+    Path path = new Path();
+    double scale = 1000 + random.nextInt(1000000);
+    double angle = 0;
+    for (int i = 0; i < n; i++) {
+      angle += (closed ? 2 * Math.PI / n : Math.PI / n) * (0.5 + random.nextDouble());
+      double r = scale * (0.2 + random.nextDouble());
+      path.add(new LongPoint(Math.round(r * Math.cos(angle)), Math.round(r * Math.sin(angle))));
+    }
+    return path;
+  }
+}
@@ -0,0 +1,88 @@
+package clipper;
+
+import clipper.Clipper.EndType;
+import clipper.Clipper.JoinType;
+import clipper.Point.LongPoint;
+
+public class TestStreamingClipperOffset {
+
+  public static void main(String[] args) {
+    testHoleInSeparateBatch(1);
+    testHoleInSeparateBatch(2);
+    testLongPathsHoleInSeparateBatch(1);
+  }
+
+  /**
+   * A shell and its hole must be offset together even if the batch size
+   * would close the batch between them.
+   */
+  private static void testHoleInSeparateBatch(int batchSize) {
+    Paths polygon = squareWithHole();
+    double expected = offsetArea(polygon);
+
+    double[] area = new double[1];
+    StreamingClipperOffset stream = new StreamingClipperOffset(10, batchSize, node -> area[0] += area(node));
+    stream.addPolygon(polygon, JoinType.ROUND, EndType.CLOSED_POLYGON);
+    stream.finish();
+
+    check("batchSize=" + batchSize, expected, area[0]);
+  }
+
+  private static void testLongPathsHoleInSeparateBatch(int batchSize) {
+    Paths polygon = squareWithHole();
+    double expected = offsetArea(polygon);
+
+    double[] area = new double[1];
+    StreamingClipperOffset stream = new StreamingClipperOffset(10, batchSize, node -> area[0] += area(node));
+    stream.addPolygon(LongPaths.fromPaths(polygon), 0, 2, JoinType.ROUND, EndType.CLOSED_POLYGON);
+    stream.finish();
+
+    check("LongPaths batchSize=" + batchSize, expected, area[0]);
+  }
+
+  private static Paths squareWithHole() {
+    Paths polygon = new Paths();
+    polygon.add(ring(0, 0, 1000, 0, 1000, 1000, 0, 1000));
+    polygon.add(ring(100, 100, 100, 900, 900, 900, 900, 100));
+    return polygon;
+  }
+
+  private static Path ring(long... xy) {
+    Path path = new Path();
+    for (int i = 0; i < xy.length; i += 2) {
+      path.add(new LongPoint(xy[i], xy[i + 1]));
+    }
+    return path;
+  }
+
+  private static double offsetArea(Paths polygon) {
+    ClipperOffset offset = new ClipperOffset();
+    offset.addPaths(polygon, JoinType.ROUND, EndType.CLOSED_POLYGON);
+    Paths solution = new Paths();
+    offset.execute(solution, 10);
+    double area = 0;
+    for (Path path : solution) {
+      area += path.area();
+    }
+    return Math.abs(area);
+  }
+
+  private static double area(PolyNode node) {
+    return Math.abs(signedArea(node));
+  }
+
+  private static double signedArea(PolyNode node) {
+    double area = node.getPolygon().area();
+    for (PolyNode child : node.getChilds()) {
+      area += signedArea(child);
+    }
+    return area;
+  }
+
+  private static void check(String name, double expected, double actual) {
+    System.out.println(name + ": area " + actual + " (expected " + expected + ")");
+    if (expected != actual) {
+      throw new RuntimeException(name + ": expected area " + expected + " but was " + actual);
+    }
+  }
+}
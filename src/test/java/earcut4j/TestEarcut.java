@@ -0,0 +1,155 @@
+package earcut4j;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.geom.LinearRing;
+import org.locationtech.jts.geom.Polygon;
+import org.locationtech.jts.geom.util.SineStarFactory;
+import org.locationtech.jts.io.ParseException;
+import org.locationtech.jts.io.WKTReader;
+
+import earcut4j.jts.JtsEarcut;
+import earcut4j.jts.TriangleMesh;
+
+public class TestEarcut {
+
+  public static void main(String[] args) {
+    testTwoHoles();
+    testManyHoles();
+    testParallel();
+  }
+
+  /**
+   * The hole bridge must be the visible vertex nearest the ray,
+   * not the first endpoint of the crossed edge.
+   */
+  private static void testTwoHoles() {
+    Polygon poly = (Polygon) read("POLYGON ((0 0, 100 0, 100 100, 0 100, 0 0), (20 20, 20 40, 40 40, 40 20, 20 20), (60 60, 60 80, 80 80, 60 60))");
+    checkTriangulation("two holes", poly, 13);
+  }
+
+  /**
+   * Polygons with 16 or more holes search for hole bridges with an edge index.
+   * Hole vertices are jittered so that no bridge passes through collinear vertices,
+   * which would be removed.
+   */
+  private static void testManyHoles() {
+    Random random = new Random(13);
+    StringBuilder wkt = new StringBuilder("POLYGON ((0 0, 100 0, 100 100, 0 100, 0 0)");
+    int numVertices = 4;
+    for (int i = 0; i < 5; i++) {
+      for (int j = 0; j < 5; j++) {
+        double x = 5 + 20 * i;
+        double y = 5 + 20 * j;
+        int n = (i + j) % 2 == 0 ? 4 : 3;
+        wkt.append(", (");
+        String first = null;
+        for (int k = 0; k < n; k++) {
+          // clockwise around the cell centre
+          double angle = -2 * Math.PI * k / n;
+          String pt = (x + 5 + 4 * Math.cos(angle) + random.nextDouble()) + " "
+              + (y + 5 + 4 * Math.sin(angle) + random.nextDouble());
+          if (first == null) first = pt;
+          wkt.append(pt).append(", ");
+        }
+        wkt.append(first).append(")");
+        numVertices += n;
+      }
+    }
+    wkt.append(")");
+    Polygon poly = (Polygon) read(wkt.toString());
+    checkTriangulation("25 holes", poly, numVertices - 2 + 2 * poly.getNumInteriorRing());
+  }
+
+  /**
+   * Each part of a parallel triangulation is the same as triangulating its polygon alone,
+   * after the index buffer has been compacted.
+   */
+  private static void testParallel() {
+    Random random = new Random(13);
+    GeometryFactory geomFact = new GeometryFactory();
+    List<Polygon> polys = new ArrayList<Polygon>();
+    for (int i = 0; i < 500; i++) {
+      switch (i % 5) {
+        case 0:
+          polys.add(geomFact.createPolygon());
+          break;
+        case 1:
+          // collapsed, with no triangles
+          polys.add((Polygon) read("POLYGON ((0 0, 10 0, 20 0, 0 0))"));
+          break;
+        default:
+          Polygon star = (Polygon) SineStarFactory.create(new Coordinate(50, 50), 100, 10 + random.nextInt(300),
+              3 + random.nextInt(6), 0.2 + 0.5 * random.nextDouble());
+          int numHoles = random.nextInt(20);
+          LinearRing[] holes = new LinearRing[numHoles];
+          for (int j = 0; j < numHoles; j++) {
+            double x = 40 + 4 * (j % 5) + random.nextDouble();
+            double y = 40 + 4 * (j / 5) + random.nextDouble();
+            holes[j] = geomFact.createLinearRing(new Coordinate[] {
+                new Coordinate(x, y), new Coordinate(x, y + 1), new Coordinate(x + 1, y + 1), new Coordinate(x, y)
+            });
+          }
+          polys.add(geomFact.createPolygon(star.getExteriorRing(), holes));
+      }
+    }
+
+    TriangleMesh mesh = JtsEarcut.triangulateParallel(polys, geomFact);
+    if (mesh.getPartCount() != polys.size()) {
+      throw new RuntimeException("parallel: expected " + polys.size() + " parts but was " + mesh.getPartCount());
+    }
+    int[] indices = mesh.getIndices();
+    for (int i = 0; i < polys.size(); i++) {
+      TriangleMesh serial = JtsEarcut.triangulate(polys.get(i));
+      int[] expected = serial.getIndices();
+      int offset = mesh.getIndexOffset(i);
+      int vertexOffset = mesh.getVertexOffset(i);
+      if (mesh.getIndexOffset(i + 1) - offset != expected.length) {
+        throw new RuntimeException("parallel part " + i + ": expected " + expected.length + " indices but was "
+            + (mesh.getIndexOffset(i + 1) - offset));
+      }
+      for (int k = 0; k < expected.length; k++) {
+        if (indices[offset + k] - vertexOffset != expected[k]) {
+          throw new RuntimeException("parallel part " + i + ": index " + k + " differs");
+        }
+      }
+      for (int v = 0; v < serial.getVertexCount(); v++) {
+        if (mesh.getX(vertexOffset + v) != serial.getX(v) || mesh.getY(vertexOffset + v) != serial.getY(v)) {
+          throw new RuntimeException("parallel part " + i + ": vertex " + v + " differs");
+        }
+      }
+    }
+    if (indices.length != mesh.getIndexOffset(polys.size())) {
+      throw new RuntimeException("parallel: index buffer has " + indices.length + " entries but "
+          + mesh.getIndexOffset(polys.size()) + " are used");
+    }
+    System.out.println("parallel: " + polys.size() + " polygons, " + mesh.getTriangleCount() + " triangles");
+  }
+
+  private static void checkTriangulation(String name, Polygon poly, int expectedTriangles) {
+    TriangleMesh mesh = JtsEarcut.triangulate(poly);
+    double area = mesh.toGeometry().getArea();
+    System.out.println(name + ": " + mesh.getTriangleCount() + " triangles, area " + area);
+    if (mesh.getTriangleCount() != expectedTriangles) {
+      throw new RuntimeException(name + ": expected " + expectedTriangles + " triangles but was " + mesh.getTriangleCount());
+    }
+    // overlapping triangles would sum to more than the polygon area
+    if (Math.abs(area - poly.getArea()) > 1e-9 * poly.getArea()) {
+      throw new RuntimeException(name + ": expected area " + poly.getArea() + " but was " + area);
+    }
+  }
+
+  public static Geometry read(String wkt) {
+    WKTReader reader = new WKTReader();
+    try {
+      return reader.read(wkt);
+    } catch (ParseException e) {
+      throw new RuntimeException(e.getMessage());
+    }
+  }
+}
@@ -0,0 +1,114 @@
+package org.geotools.polylabelfast;
+
+import java.util.Random;
+
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.geom.Point;
+import org.locationtech.jts.geom.util.SineStarFactory;
+import org.locationtech.jts.io.ParseException;
+import org.locationtech.jts.io.WKTReader;
+import org.locationtech.jts.operation.distance.DistanceOp;
+
+public class TestIndexedSignedDistance {
+
+  private static final GeometryFactory geomFact = new GeometryFactory();
+
+  public static void main(String[] args) {
+    testStarsWithHoles();
+    testTouchingShells();
+    testVertices();
+  }
+
+  private static void testStarsWithHoles() {
+    Random random = new Random(18);
+    for (int i = 0; i < 20; i++) {
+      Geometry star = SineStarFactory.create(new Coordinate(50, 50), 100, 20 + random.nextInt(200),
+          3 + random.nextInt(6), 0.2 + 0.5 * random.nextDouble());
+      Geometry poly = star.difference(geomFact.createPoint(new Coordinate(40 + 20 * random.nextDouble(), 40 + 20 * random.nextDouble()))
+          .buffer(2 + 10 * random.nextDouble()));
+      checkRandomPoints("star " + i, poly, random, 500);
+    }
+  }
+
+  /**
+   * Where shells touch at a vertex, points near the vertex can be equally near both rings.
+   * Where a reflex vertex touches a convex vertex the rings disagree about the side,
+   * and it is resolved by counting crossings.
+   */
+  private static void testTouchingShells() {
+    Geometry squares = read("MULTIPOLYGON (((0 0, 10 0, 10 10, 0 10, 0 0)), ((10 10, 20 10, 20 20, 10 20, 10 10)))");
+    Geometry triangles = read("MULTIPOLYGON (((0 0, 10 10, 0 20, 0 0)), ((20 0, 20 20, 10 10, 20 0)))");
+    Geometry notch = read("MULTIPOLYGON (((0 0, 20 0, 20 10, 10 10, 10 20, 0 20, 0 0)), ((10 10, 20 15, 15 20, 10 10)))");
+    Random random = new Random(18);
+    for (Geometry geom : new Geometry[] { squares, triangles, notch }) {
+      checkRandomPoints("touching " + geom.getGeometryType(), geom, random, 2000);
+      // points on the lines of symmetry through the touching vertex
+      for (int i = -20; i <= 20; i++) {
+        double t = i / 4.0;
+        checkPoint("touching diagonal", geom, 10 + t, 10 + t);
+        checkPoint("touching diagonal", geom, 10 + t, 10 - t);
+        checkPoint("touching axis", geom, 10 + t, 10);
+        checkPoint("touching axis", geom, 10, 10 + t);
+      }
+    }
+  }
+
+  /**
+   * Points on vertices are at distance zero.
+   */
+  private static void testVertices() {
+    Geometry poly = read("POLYGON ((0 0, 100 0, 100 100, 50 40, 0 100, 0 0), (20 20, 20 30, 30 30, 30 20, 20 20))");
+    IndexedSignedDistance index = new IndexedSignedDistance(poly);
+    for (Coordinate p : poly.getCoordinates()) {
+      double d = index.distance(p.x, p.y);
+      if (d != 0) {
+        throw new RuntimeException("vertex " + p + ": expected distance 0 but was " + d);
+      }
+    }
+    // points near the reflex vertex are inside below it, and outside above it
+    checkPoint("reflex vertex", poly, 50, 39);
+    checkPoint("reflex vertex", poly, 50, 41);
+    checkPoint("reflex vertex", poly, 49, 40);
+    checkPoint("reflex vertex", poly, 51, 40);
+  }
+
+  private static void checkRandomPoints(String name, Geometry geom, Random random, int numPoints) {
+    Geometry env = geom.getEnvelope().buffer(geom.getEnvelopeInternal().getWidth() / 10);
+    double minX = env.getEnvelopeInternal().getMinX();
+    double minY = env.getEnvelopeInternal().getMinY();
+    double w = env.getEnvelopeInternal().getWidth();
+    double h = env.getEnvelopeInternal().getHeight();
+    IndexedSignedDistance index = new IndexedSignedDistance(geom);
+    for (int i = 0; i < numPoints; i++) {
+      checkPoint(name, geom, index, minX + w * random.nextDouble(), minY + h * random.nextDouble());
+    }
+    System.out.println(name + ": " + numPoints + " points ok");
+  }
+
+  private static void checkPoint(String name, Geometry geom, double x, double y) {
+    checkPoint(name, geom, new IndexedSignedDistance(geom), x, y);
+  }
+
+  private static void checkPoint(String name, Geometry geom, IndexedSignedDistance index, double x, double y) {
+    Point pt = geomFact.createPoint(new Coordinate(x, y));
+    double expected = DistanceOp.distance(pt, geom.getBoundary());
+    if (expected > 0 && !geom.contains(pt)) {
+      expected = -expected;
+    }
+    double actual = index.distance(x, y);
+    if (Math.abs(actual - expected) > 1e-9 * Math.max(1, Math.abs(expected))) {
+      throw new RuntimeException(name + " POINT (" + x + " " + y + "): expected distance " + expected + " but was " + actual);
+    }
+  }
+
+  public static Geometry read(String wkt) {
+    WKTReader reader = new WKTReader();
+    try {
+      return reader.read(wkt);
+    } catch (ParseException e) {
+      throw new RuntimeException(e.getMessage());
+    }
+  }
+}
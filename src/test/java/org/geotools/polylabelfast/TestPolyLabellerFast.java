@@ -0,0 +1,116 @@
+package org.geotools.polylabelfast;
+
+import java.util.Random;
+
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.Envelope;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.geom.util.SineStarFactory;
+import org.locationtech.jts.io.ParseException;
+import org.locationtech.jts.io.WKTReader;
+
+public class TestPolyLabellerFast {
+
+  private static final GeometryFactory geomFact = new GeometryFactory();
+
+  private static final double PRECISION = 1e-6;
+
+  public static void main(String[] args) {
+    testBudgets();
+    testIncompleteCover();
+    testRectangles();
+  }
+
+  /**
+   * A budgeted search stays within its probe budget, and its error bound
+   * covers the distance of the unbudgeted label.
+   */
+  private static void testBudgets() {
+    Random random = new Random(22);
+    for (int i = 0; i < 20; i++) {
+      Geometry poly = createStarWithHole(random);
+      PolyLabellerFast labeller = new PolyLabellerFast(poly);
+      double optimum = labeller.getLabel(PRECISION, Integer.MAX_VALUE, Long.MAX_VALUE).getDistance();
+      for (int maxProbes : new int[] { 0, 1, 4, 10, 50, 200, 1000, 100000 }) {
+        LabelResult result = labeller.getLabel(PRECISION, maxProbes, Long.MAX_VALUE);
+        String name = "star " + i + " maxProbes=" + maxProbes;
+        if (result.getNumProbes() > maxProbes) {
+          throw new RuntimeException(name + ": used " + result.getNumProbes() + " probes");
+        }
+        if (result.getDistance() + result.getErrorBound() < optimum - 1e-12) {
+          throw new RuntimeException(name + ": distance " + result.getDistance() + " + error bound " + result.getErrorBound()
+              + " is less than the optimum " + optimum);
+        }
+        if (result.isComplete() && result.getErrorBound() > PRECISION) {
+          throw new RuntimeException(name + ": complete with error bound " + result.getErrorBound());
+        }
+      }
+    }
+    System.out.println("budgets ok");
+  }
+
+  /**
+   * The error bound is infinite if the budget runs out before the polygon is covered with initial cells.
+   */
+  private static void testIncompleteCover() {
+    // a long thin polygon is covered by 100 initial cells
+    Geometry strip = read("POLYGON ((0 0, 100 0, 100 1, 0 1, 0 0))");
+    PolyLabellerFast labeller = new PolyLabellerFast(strip);
+    checkIncomplete("probe budget", labeller.getLabel(PRECISION, 10, Long.MAX_VALUE));
+    checkIncomplete("time budget", labeller.getLabel(PRECISION, Integer.MAX_VALUE, 0));
+    System.out.println("incomplete cover ok");
+  }
+
+  private static void checkIncomplete(String name, LabelResult result) {
+    if (result.isComplete() || result.getErrorBound() != Double.POSITIVE_INFINITY) {
+      throw new RuntimeException(name + ": expected an incomplete result with infinite error bound but was " + result);
+    }
+  }
+
+  /**
+   * The rectangle label fits in the polygon, and is the largest of its shape at its center.
+   * The best box can often slide along the polygon, so the search is given a coarser precision.
+   */
+  private static void testRectangles() {
+    Random random = new Random(23);
+    for (int i = 0; i < 40; i++) {
+      Geometry poly = createStarWithHole(random);
+      PolyLabellerFast labeller = new PolyLabellerFast(poly);
+      double width = 0.5 + 4 * random.nextDouble();
+      double height = 0.5 + 4 * random.nextDouble();
+      LabelResult result = labeller.getRectangleLabel(width, height, 1e-3, Integer.MAX_VALUE, Long.MAX_VALUE);
+      String name = "star " + i + " label " + width + " x " + height;
+      Coordinate c = result.getPoint().getCoordinate();
+      double scale = result.getDistance();
+      if (!poly.covers(createBox(c, scale * width / 2 - 1e-9, scale * height / 2 - 1e-9))) {
+        throw new RuntimeException(name + ": box of scale " + scale + " at " + c + " is not covered");
+      }
+      if (poly.covers(createBox(c, scale * width / 2 * (1 + 1e-6), scale * height / 2 * (1 + 1e-6)))) {
+        throw new RuntimeException(name + ": a larger box than scale " + scale + " at " + c + " is covered");
+      }
+    }
+    System.out.println("rectangles ok");
+  }
+
+  private static Geometry createBox(Coordinate c, double halfWidth, double halfHeight) {
+    return geomFact.toGeometry(new Envelope(
+        c.x - halfWidth, c.x + halfWidth, c.y - halfHeight, c.y + halfHeight));
+  }
+
+  private static Geometry createStarWithHole(Random random) {
+    Geometry star = SineStarFactory.create(new Coordinate(50, 50), 100, 20 + random.nextInt(200),
+        3 + random.nextInt(6), 0.2 + 0.5 * random.nextDouble());
+    return star.difference(geomFact.createPoint(new Coordinate(40 + 20 * random.nextDouble(), 40 + 20 * random.nextDouble()))
+        .buffer(2 + 10 * random.nextDouble()));
+  }
+
+  public static Geometry read(String wkt) {
+    WKTReader reader = new WKTReader();
+    try {
+      return reader.read(wkt);
+    } catch (ParseException e) {
+      throw new RuntimeException(e.getMessage());
+    }
+  }
+}
@@ -0,0 +1,305 @@
+package test.perf.triangulate;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.geom.LinearRing;
+import org.locationtech.jts.geom.Polygon;
+import org.locationtech.jts.geom.util.SineStarFactory;
+import org.locationtech.jts.triangulatepoly.ConstrainedDelaunayTriangulator;
+import org.locationtech.jts.triangulatepoly.PolygonTriangulator;
+
+import earcut4j.jts.JtsEarcut;
+import earcut4j.jts.TriangleMesh;
+import test.perf.PerformanceTestCase;
+import test.perf.PerformanceTestRunner;
+
+/**
+ * Compares the throughput, allocation and triangle quality
+ * of Earcut and the JTS polygon triangulators.
+ * <p>
+ * Each run triangulates a grid of sine star polygons with the given number of vertices,
+ * each with one hole per 100 vertices.
+ * For each triangulator the report gives triangles per second, bytes allocated per triangle
+ * (where the JVM supports allocation measurement), the minimum and mean minimum triangle angle
+ * and the number of slivers (triangles with an angle below {@link #SLIVER_ANGLE} degrees).
+ * <p>
+ * Every triangulator is run untimed over the test polygons before any is measured,
+ * so that the results do not depend on the order the runs are made in.
+ * Each run then triangulates the polygons {@link #N_ITER} times and reports the fastest pass.
+ */
+public class TriangulatePerfTest 
+extends PerformanceTestCase
+{
+  private static final int N_ITER = 10;
+
+  /**
+   * Each triangulator is warmed up for at least this long, so that it is compiled before it is timed.
+   */
+  private static final long WARMUP_NANOS = 1000000000L;
+
+  static double SLIVER_ANGLE = 5;
+
+  static double ORG_X = 100;
+  static double ORG_Y = ORG_X;
+  static double SIZE = 2 * ORG_X;
+  static int N_ARMS = 6;
+  static double ARM_RATIO = 0.3;
+
+  static int GRID_SIZE = 10;
+  static double GRID_CELL_SIZE = SIZE / GRID_SIZE;
+
+  static int NUM_CASES = GRID_SIZE * GRID_SIZE;
+
+  static int HOLE_PTS = 16;
+
+  private static final ThreadMXBean THREAD_BEAN = ManagementFactory.getThreadMXBean();
+
+  private static final boolean ALLOC_SUPPORTED = enableAllocationMeasurement();
+
+  /**
+   * Triangulates a polygon, timing only the triangulation itself.
+   */
+  private interface Triangulation {
+    void triangulate(Polygon poly, Stats stats);
+  }
+
+  private static final Triangulation EARCUT_MESH = (poly, stats) -> {
+    stats.start();
+    TriangleMesh mesh = JtsEarcut.triangulate(poly);
+    stats.addTime(mesh.getTriangleCount());
+    int[] tri = mesh.getIndices();
+    for (int i = 0; i < tri.length; i += 3) {
+      stats.addTriangle(mesh.getX(tri[i]), mesh.getY(tri[i]),
+          mesh.getX(tri[i + 1]), mesh.getY(tri[i + 1]),
+          mesh.getX(tri[i + 2]), mesh.getY(tri[i + 2]));
+    }
+  };
+
+  private static final Triangulation EARCUT_GEOMETRY = (poly, stats) -> {
+    stats.start();
+    Geometry tris = JtsEarcut.triangulate(poly).toGeometry();
+    stats.addTime(tris.getNumGeometries());
+    stats.addTriangles(tris);
+  };
+
+  private static final Triangulation POLYGON_TRIANGULATOR = (poly, stats) -> {
+    stats.start();
+    Geometry tris = PolygonTriangulator.triangulate(poly);
+    stats.addTime(tris.getNumGeometries());
+    stats.addTriangles(tris);
+  };
+
+  private static final Triangulation CONSTRAINED_DELAUNAY = (poly, stats) -> {
+    stats.start();
+    Geometry tris = ConstrainedDelaunayTriangulator.triangulate(poly);
+    stats.addTime(tris.getNumGeometries());
+    stats.addTriangles(tris);
+  };
+
+  private static final Triangulation[] TRIANGULATIONS = {
+      EARCUT_MESH, EARCUT_GEOMETRY, POLYGON_TRIANGULATOR, CONSTRAINED_DELAUNAY
+  };
+
+  private GeometryFactory geomFact = new GeometryFactory();
+
+  private Polygon[] geoms;
+
+  public static void main(String args[]) {
+    PerformanceTestRunner.run(TriangulatePerfTest.class);
+  }
+
+  public TriangulatePerfTest(String name) {
+    super(name);
+    setRunSize(new int[] { 20, 100, 1000, 5000 });
+    //--- the runs repeat themselves, see measure()
+    setRunIterations(1);
+  }
+
+  public void setUp()
+  {
+    System.out.println("Triangulation perf test");
+    System.out.println("SineStar: cell size: " + GRID_CELL_SIZE
+        + "  # arms: " + N_ARMS + "  arm ratio: " + ARM_RATIO);   
+    System.out.println("# Iterations: " + N_ITER + " (fastest reported)   warmup: " + WARMUP_NANOS / 1000000 + " ms");
+    System.out.println("# geoms: " + NUM_CASES);
+    System.out.println("Sliver angle: " + SLIVER_ANGLE);
+  }
+
+  public void startRun(int npts)
+  {
+    int nholes = npts / 100;
+    geoms = createTestGeoms(npts, nholes);
+    System.out.println("\n-------  Running with # pts = " + npts + "   # holes = " + nholes);
+    for (Triangulation triangulation : TRIANGULATIONS) {
+      long start = System.nanoTime();
+      do {
+        triangulateAll(triangulation, new Stats("warmup"));
+      } while (System.nanoTime() - start < WARMUP_NANOS);
+    }
+  }
+
+  private Polygon[] createTestGeoms(int npts, int nholes) {
+    Polygon[] polys = new Polygon[NUM_CASES];
+    int index = 0;
+    for (int i = 0; i < GRID_SIZE; i++) {
+      for (int j = 0; j < GRID_SIZE; j++) {
+        double x = GRID_CELL_SIZE/2 + i * GRID_CELL_SIZE;
+        double y = GRID_CELL_SIZE/2 + j * GRID_CELL_SIZE;
+        Polygon star = (Polygon) SineStarFactory.create(new Coordinate(x, y), GRID_CELL_SIZE, npts, N_ARMS, ARM_RATIO);
+        polys[index++] = geomFact.createPolygon(star.getExteriorRing(), createHoles(x, y, nholes));
+      }
+    }
+    return polys;
+  }
+
+  /**
+   * Creates small circular holes on a grid inside the core of a star.
+   */
+  private LinearRing[] createHoles(double x, double y, int nholes) {
+    LinearRing[] holes = new LinearRing[nholes];
+    int side = (int) Math.ceil(Math.sqrt(nholes));
+    //--- the core of the star has radius (1 - ARM_RATIO) * size / 2
+    double extent = 0.6 * (1 - ARM_RATIO) * GRID_CELL_SIZE / 2;
+    double spacing = 2 * extent / Math.max(side, 1);
+    double radius = 0.3 * spacing;
+    for (int k = 0; k < nholes; k++) {
+      double cx = x - extent + (k % side + 0.5) * spacing;
+      double cy = y - extent + (k / side + 0.5) * spacing;
+      Coordinate[] pts = new Coordinate[HOLE_PTS + 1];
+      for (int i = 0; i < HOLE_PTS; i++) {
+        double ang = 2 * Math.PI * i / HOLE_PTS;
+        pts[i] = new Coordinate(cx + radius * Math.cos(ang), cy + radius * Math.sin(ang));
+      }
+      pts[HOLE_PTS] = pts[0].copy();
+      holes[k] = geomFact.createLinearRing(pts);
+    }
+    return holes;
+  }
+
+  public void runEarcutMesh()
+  {
+    measure("Earcut mesh", EARCUT_MESH);
+  }
+
+  public void runEarcutGeometry()
+  {
+    measure("Earcut geometry", EARCUT_GEOMETRY);
+  }
+
+  public void runPolygonTriangulator()
+  {
+    measure("PolygonTriangulator", POLYGON_TRIANGULATOR);
+  }
+
+  public void runConstrainedDelaunay()
+  {
+    measure("ConstrainedDelaunayTriangulator", CONSTRAINED_DELAUNAY);
+  }
+
+  private void measure(String name, Triangulation triangulation) {
+    Stats best = null;
+    for (int iter = 0; iter < N_ITER; iter++) {
+      Stats stats = new Stats(name);
+      triangulateAll(triangulation, stats);
+      if (best == null || stats.nanos < best.nanos) {
+        best = stats;
+      }
+    }
+    best.print();
+  }
+
+  private void triangulateAll(Triangulation triangulation, Stats stats) {
+    for (Polygon poly : geoms) {
+      triangulation.triangulate(poly, stats);
+    }
+  }
+
+  private static boolean enableAllocationMeasurement() {
+    if (!(THREAD_BEAN instanceof com.sun.management.ThreadMXBean)) {
+      return false;
+    }
+    com.sun.management.ThreadMXBean bean = (com.sun.management.ThreadMXBean) THREAD_BEAN;
+    if (!bean.isThreadAllocatedMemorySupported()) {
+      return false;
+    }
+    bean.setThreadAllocatedMemoryEnabled(true);
+    return bean.isThreadAllocatedMemoryEnabled();
+  }
+
+  private static long allocatedBytes() {
+    if (!ALLOC_SUPPORTED) {
+      return 0;
+    }
+    return ((com.sun.management.ThreadMXBean) THREAD_BEAN).getThreadAllocatedBytes(Thread.currentThread().getId());
+  }
+
+  /**
+   * Accumulates the time and allocation spent triangulating,
+   * excluding the time spent measuring triangle quality.
+   */
+  private static class Stats {
+    private String name;
+    private long nanos;
+    private long bytes;
+    private long triangles;
+    private long slivers;
+    private double minAngle = 180;
+    private double sumMinAngle;
+    private long startNanos;
+    private long startBytes;
+
+    Stats(String name) {
+      this.name = name;
+    }
+
+    void start() {
+      startBytes = allocatedBytes();
+      startNanos = System.nanoTime();
+    }
+
+    void addTime(int numTriangles) {
+      nanos += System.nanoTime() - startNanos;
+      bytes += allocatedBytes() - startBytes;
+      triangles += numTriangles;
+    }
+
+    void addTriangles(Geometry tris) {
+      for (int i = 0; i < tris.getNumGeometries(); i++) {
+        Coordinate[] pts = tris.getGeometryN(i).getCoordinates();
+        addTriangle(pts[0].x, pts[0].y, pts[1].x, pts[1].y, pts[2].x, pts[2].y);
+      }
+    }
+
+    void addTriangle(double ax, double ay, double bx, double by, double cx, double cy) {
+      double angA = angle(ax, ay, bx, by, cx, cy);
+      double angB = angle(bx, by, cx, cy, ax, ay);
+      double ang = Math.min(Math.min(angA, angB), 180 - angA - angB);
+      if (ang < minAngle) minAngle = ang;
+      sumMinAngle += ang;
+      if (ang < SLIVER_ANGLE) slivers++;
+    }
+
+    /**
+     * Computes the interior angle at p between the directions to q and r, in degrees.
+     */
+    private static double angle(double px, double py, double qx, double qy, double rx, double ry) {
+      double ux = qx - px, uy = qy - py;
+      double vx = rx - px, vy = ry - py;
+      return Math.toDegrees(Math.abs(Math.atan2(ux * vy - uy * vx, ux * vx + uy * vy)));
+    }
+
+    void print() {
+      double secs = nanos / 1e9;
+      System.out.println(name + " : # tris = " + triangles
+          + "   tris/sec = " + (long) (triangles / secs)
+          + "   bytes/tri = " + (!ALLOC_SUPPORTED ? "n/a" : String.format("%.1f", (double) bytes / triangles))
+          + "   min angle = " + String.format("%.3f", minAngle)
+          + "   mean min angle = " + String.format("%.2f", sumMinAngle / triangles)
+          + "   slivers = " + slivers);
+    }
+  }
+}